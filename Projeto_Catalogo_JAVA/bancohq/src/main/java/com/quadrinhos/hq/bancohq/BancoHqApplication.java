@@ -1,12 +1,18 @@
 package com.quadrinhos.hq.bancohq;
 
+import com.quadrinhos.hq.bancohq.config.CacheProperties;
+import com.quadrinhos.hq.bancohq.config.ImportProperties;
+import com.quadrinhos.hq.bancohq.config.JwtProperties;
+import com.quadrinhos.hq.bancohq.config.LoginProperties;
 import com.quadrinhos.hq.bancohq.config.StorageProperties;
+import com.quadrinhos.hq.bancohq.config.StreamingProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(StorageProperties.class)
+@EnableConfigurationProperties({StorageProperties.class, ImportProperties.class, CacheProperties.class,
+        JwtProperties.class, LoginProperties.class, StreamingProperties.class})
 public class BancoHqApplication {
 
         public static void main( String[] args) {
@@ -0,0 +1,43 @@
+package com.quadrinhos.hq.bancohq.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Carregamento de caches assíncronos na própria thread que pediu o valor. O Caffeine síncrono executa o
+ * carregamento dentro do {@code compute} do mapa, que usa {@code synchronized}: uma consulta ao banco ali
+ * dentro prende a thread de plataforma por baixo de uma thread virtual. Aqui o mapa só recebe um future
+ * vazio; a consulta roda fora do lock e quem pede a mesma chave espera pelo future, sem repetir a
+ * consulta.
+ *
+ * <p>Uma invalidação durante o carregamento remove o future do mapa: quem já o aguardava recebe o valor
+ * carregado, mas a próxima leitura carrega de novo.
+ */
+final class CacheLoading {
+
+    private CacheLoading() {
+    }
+
+    static <K, V> V get(final AsyncCache<K, V> cache, final K key, final Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (ignored, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException | Error exception) {
+                created.completeExceptionally(exception);
+                throw exception;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+}
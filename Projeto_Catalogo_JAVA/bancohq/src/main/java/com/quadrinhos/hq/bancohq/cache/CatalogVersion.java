@@ -0,0 +1,55 @@
+package com.quadrinhos.hq.bancohq.cache;
+
+import com.quadrinhos.hq.bancohq.event.ItemChangedEvent;
+import com.quadrinhos.hq.bancohq.event.ItemsImportedEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versão global do catálogo: avança depois do commit de qualquer escrita e depois de cada atualização
+ * publicada pelo índice de busca (as importações chegam ao índice com atraso). Resultados guardados sob
+ * uma versão anterior simplesmente deixam de ser encontrados.
+ */
+@Component
+public class CatalogVersion {
+
+    /**
+     * O contador recomeça a cada inicialização; o instante de início entra no ETag para que uma resposta
+     * anterior ao reinício nunca seja confirmada como atual.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long increment() {
+        lastModified = System.currentTimeMillis();
+        return version.incrementAndGet();
+    }
+
+    /**
+     * ETag forte das consultas de lista: {@code variant} distingue representações diferentes (lista,
+     * página, NDJSON…) da mesma versão.
+     */
+    public String etag(final String variant) {
+        return "\"" + epoch + "." + version.get() + "-" + variant + "\"";
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(final ItemChangedEvent event) {
+        increment();
+    }
+
+    @TransactionalEventListener
+    public void onItemsImported(final ItemsImportedEvent event) {
+        increment();
+    }
+}
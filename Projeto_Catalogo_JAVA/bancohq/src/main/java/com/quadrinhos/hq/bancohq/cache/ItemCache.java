@@ -0,0 +1,71 @@
+package com.quadrinhos.hq.bancohq.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.quadrinhos.hq.bancohq.config.CacheProperties;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.event.ItemChangedEvent;
+import com.quadrinhos.hq.bancohq.event.ItemsImportedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache em memória de {@link ItemResponse} por id, limitado por quantidade e por tempo de vida. Os
+ * valores são imutáveis e podem ser compartilhados entre requisições.
+ *
+ * <p>As entradas são removidas depois do commit de cada escrita, apenas para os ids alterados. Um
+ * carregamento em andamento para o mesmo id nesse momento não fica no cache (veja {@link CacheLoading}),
+ * então o cache não guarda a versão anterior ao commit. As estatísticas (acertos, faltas e remoções) são
+ * publicadas no Micrometer como {@code cache.*} com a tag {@code cache=items}.
+ */
+@Component
+public class ItemCache {
+
+    public static final String NAME = "items";
+
+    private final AsyncCache<Long, ItemResponse> cache;
+
+    public ItemCache(final CacheProperties properties, final MeterRegistry meterRegistry) {
+        CacheProperties.Items config = properties.getItems();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), NAME);
+    }
+
+    /**
+     * Retorna o item em cache ou o carrega com {@code loader}. Exceções do carregamento (item
+     * inexistente, por exemplo) são repassadas e nada é armazenado.
+     */
+    public ItemResponse get(final Long id, final Function<Long, ItemResponse> loader) {
+        return CacheLoading.get(cache, id, loader);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(final ItemChangedEvent event) {
+        List<Long> ids = new ArrayList<>(event.deletedIds());
+        event.upserted().forEach(item -> ids.add(item.getId()));
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    @TransactionalEventListener
+    public void onItemsImported(final ItemsImportedEvent event) {
+        cache.synchronous().invalidateAll(event.items().stream().map(ItemResponse::getId).toList());
+    }
+}
@@ -0,0 +1,105 @@
+package com.quadrinhos.hq.bancohq.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.quadrinhos.hq.bancohq.config.CacheProperties;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache dos resultados de {@code ItemService.search}, pela forma normalizada do filtro e pela
+ * {@link CatalogVersion} do momento da busca. Uma escrita não percorre as entradas: ao avançar a versão,
+ * as chaves antigas deixam de ser consultadas e saem do cache pela política de remoção.
+ *
+ * <p>O limite é o total estimado de bytes retidos, não a quantidade de entradas, porque o resultado da
+ * lista completa pode ser milhares de vezes maior que o de uma busca específica. As estatísticas são
+ * publicadas no Micrometer como {@code cache.*} com a tag {@code cache=search}.
+ */
+@Component
+public class SearchResultCache {
+
+    public static final String NAME = "search";
+
+    private static final int LIST_OVERHEAD_BYTES = 64;
+    private static final int ITEM_OVERHEAD_BYTES = 120;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final int PREVIEW_OVERHEAD_BYTES = 64;
+
+    private final AsyncCache<Key, List<ItemResponse>> cache;
+    private final CatalogVersion catalogVersion;
+
+    public SearchResultCache(final CacheProperties properties, final CatalogVersion catalogVersion,
+            final MeterRegistry meterRegistry) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getSearch().getMaximumSize().toBytes())
+                .weigher((Key key, List<ItemResponse> items) -> weigh(items))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), NAME);
+        Gauge.builder("catalogo.cache.search.retained", this, SearchResultCache::retainedBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .description("Memória estimada ocupada pelos resultados em cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna o resultado guardado para o filtro na versão atual do catálogo ou executa {@code search} e
+     * guarda uma cópia imutável do resultado. A busca roda na thread chamadora, fora do lock do cache.
+     */
+    public List<ItemResponse> get(final ItemFilter filter, final Supplier<List<ItemResponse>> search) {
+        Key key = new Key(catalogVersion.current(), filter.normalizedTerm(), filter.normalizedPublisher(),
+                filter.normalizedSeries(), filter.getStatus(), filter.normalizedTags());
+        return CacheLoading.get(cache, key, ignored -> List.copyOf(search.get()));
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long retainedBytes() {
+        return cache.synchronous().policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    void cleanUp() {
+        cache.synchronous().cleanUp();
+    }
+
+    private static int weigh(final List<ItemResponse> items) {
+        long bytes = LIST_OVERHEAD_BYTES;
+        for (ItemResponse item : items) {
+            bytes += ITEM_OVERHEAD_BYTES + sizeOf(item.getTitle()) + sizeOf(item.getSeries())
+                    + sizeOf(item.getIssueNumber()) + sizeOf(item.getPublisher()) + sizeOf(item.getLanguage())
+                    + sizeOf(item.getCondition()) + sizeOf(item.getLocation()) + sizeOf(item.getDescription())
+                    + sizeOf(item.getImageUrl());
+            if (item.getImagePreview() != null) {
+                bytes += PREVIEW_OVERHEAD_BYTES + sizeOf(item.getImagePreview().getDominantColor())
+                        + sizeOf(item.getImagePreview().getBlurHash());
+            }
+            if (item.getTags() != null) {
+                for (String tag : item.getTags()) {
+                    bytes += sizeOf(tag);
+                }
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long sizeOf(final String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+
+    private record Key(long version, String term, String publisher, String series, ItemStatus status,
+            Set<String> tags) {
+    }
+}
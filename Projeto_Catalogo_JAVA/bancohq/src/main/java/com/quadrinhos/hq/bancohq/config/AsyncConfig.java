@@ -0,0 +1,52 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import java.util.concurrent.Callable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Aplica {@link StreamingProperties#getRequestTimeout()} só aos handlers que devolvem
+ * {@link StreamingResponseBody}; login, cadastro e miniaturas mantêm o tempo curto da configuração global.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private final StreamingProperties streamingProperties;
+
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(final NativeWebRequest request, final Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest && returnsStream(request)) {
+                    asyncRequest.setTimeout(streamingProperties.getRequestTimeout().toMillis());
+                }
+            }
+        });
+    }
+
+    private static boolean returnsStream(final NativeWebRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (!(handler instanceof HandlerMethod method)) {
+            return false;
+        }
+        ResolvableType returnType = ResolvableType.forMethodReturnType(method.getMethod());
+        if (ResponseEntity.class.isAssignableFrom(returnType.toClass())) {
+            returnType = returnType.getGeneric(0);
+        }
+        return StreamingResponseBody.class.isAssignableFrom(returnType.toClass());
+    }
+}
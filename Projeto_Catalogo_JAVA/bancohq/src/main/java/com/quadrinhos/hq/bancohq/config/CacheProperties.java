@@ -0,0 +1,43 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalogo.cache")
+public class CacheProperties {
+
+    private final Items items = new Items();
+
+    private final Search search = new Search();
+
+    @Getter
+    @Setter
+    public static class Items {
+
+        /**
+         * Quantidade máxima de itens mantidos; com 0 o cache fica desligado.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Tempo máximo que uma entrada permanece no cache, mesmo sem alterações. Limita a defasagem
+         * quando o banco é alterado por fora da aplicação.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+
+        /**
+         * Total estimado de memória ocupada pelos resultados guardados; com 0 o cache fica desligado.
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(32);
+    }
+}
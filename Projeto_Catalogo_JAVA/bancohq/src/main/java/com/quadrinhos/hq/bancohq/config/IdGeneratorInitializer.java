@@ -0,0 +1,49 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import com.quadrinhos.hq.bancohq.model.Item;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Bancos criados quando {@code items.id} ainda era IDENTITY já têm ids em uso. Antes de qualquer
+ * inserção, avança o gerador de ids para depois do maior id existente.
+ *
+ * <p>{@code next_val} passa a ser o próximo id livre, o que só vale com o otimizador {@code pooled-lo}
+ * (com {@code pooled}, o valor é o fim do bloco). Por isso o otimizador é configurado em
+ * {@code application.properties}, para todos os perfis.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class IdGeneratorInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(final ApplicationArguments args) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from items", Long.class);
+        long nextId = maxId == null ? 1 : maxId + 1;
+        int updated = jdbcTemplate.update("update " + Item.ID_GENERATOR_TABLE
+                + " set next_val = ? where sequence_name = ? and next_val < ?",
+                nextId, Item.ID_GENERATOR_KEY, nextId);
+        if (updated > 0) {
+            log.info("Gerador de ids de itens avançado para {}", nextId);
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from " + Item.ID_GENERATOR_TABLE
+                + " where sequence_name = ?", Integer.class, Item.ID_GENERATOR_KEY);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("insert into " + Item.ID_GENERATOR_TABLE + " (sequence_name, next_val) values (?, ?)",
+                    Item.ID_GENERATOR_KEY, nextId);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalogo.import")
+public class ImportProperties {
+
+    /**
+     * Diretório onde os arquivos enviados e os relatórios de linhas rejeitadas ficam durante o job.
+     */
+    private String spoolLocation = "imports";
+
+    private int maxConcurrentJobs = 2;
+
+    private int maxQueuedJobs = 8;
+
+    /**
+     * Linhas por transação: o que já foi confirmado permanece mesmo se o job falhar ou for cancelado.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Threads que convertem e validam as linhas. Com 0 o job lê, valida e grava na mesma thread; o
+     * padrão deixa um processador para a leitura e a gravação, o que em máquinas de um núcleo significa 0.
+     */
+    private int workers = Runtime.getRuntime().availableProcessors() - 1;
+
+    /**
+     * Linhas lidas do CSV por tarefa entregue aos workers.
+     */
+    private int parseBatchSize = 256;
+
+    /**
+     * Lotes lidos e ainda não gravados; limita a memória quando o banco é mais lento que a validação.
+     */
+    private int maxInFlightBatches = 32;
+
+    /**
+     * Grava as linhas na ordem do arquivo. Sem ordem, cada lote é gravado assim que validado.
+     */
+    private boolean preserveOrder = true;
+
+    /**
+     * Por quanto tempo um job encerrado (e seu relatório) continua disponível para consulta.
+     */
+    private Duration retention = Duration.ofHours(6);
+}
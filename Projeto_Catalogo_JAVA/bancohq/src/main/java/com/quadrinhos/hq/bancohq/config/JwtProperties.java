@@ -0,0 +1,59 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalogo.security.jwt")
+public class JwtProperties {
+
+    private String secret = "change-me";
+
+    /**
+     * Validade do token em milissegundos.
+     */
+    private long expiration = 86_400_000L;
+
+    private final Revocation revocation = new Revocation();
+
+    private final VerifiedCache verifiedCache = new VerifiedCache();
+
+    @Getter
+    @Setter
+    public static class Revocation {
+
+        /**
+         * Compara a versão gravada no token com a do usuário a cada requisição, para que
+         * {@code POST /api/auth/revoke} invalide os tokens já emitidos. Desligado, nenhuma requisição
+         * autenticada consulta o banco.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Por quanto tempo a versão de um usuário é reaproveitada; é também o atraso máximo para uma
+         * revogação feita em outra instância valer nesta.
+         */
+        private Duration cacheTtl = Duration.ofSeconds(30);
+
+        private long cacheMaximumSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class VerifiedCache {
+
+        /**
+         * Quantidade de tokens já verificados mantidos para pular a verificação da assinatura; com 0 todo
+         * token é verificado a cada requisição.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Tempo máximo de uma entrada; nunca passa da expiração do próprio token.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+}
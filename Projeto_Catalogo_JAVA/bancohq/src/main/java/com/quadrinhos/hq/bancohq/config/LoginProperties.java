@@ -0,0 +1,53 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalogo.security.login")
+public class LoginProperties {
+
+    /**
+     * Custo do BCrypt (log2 das rodadas). Ao aumentá-lo, a senha de cada usuário é recalculada com o novo
+     * custo no próximo login bem-sucedido.
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * Threads dedicadas ao BCrypt de login e cadastro. O padrão deixa metade dos processadores para as
+     * demais requisições mesmo durante uma rajada de logins.
+     */
+    private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Logins e cadastros aguardando uma thread de hash; além disso a requisição é recusada com 503.
+     */
+    private int hashingQueueCapacity = 16;
+
+    private final Throttle throttle = new Throttle();
+
+    @Getter
+    @Setter
+    public static class Throttle {
+
+        /**
+         * Falhas seguidas de login por usuário antes de recusar novas tentativas com 429.
+         */
+        private int maxFailuresPerUsername = 5;
+
+        /**
+         * Falhas de login e cadastros por endereço IP antes de recusar novas tentativas com 429.
+         */
+        private int maxAttemptsPerAddress = 30;
+
+        /**
+         * As contagens são zeradas depois desse tempo sem novas tentativas.
+         */
+        private Duration window = Duration.ofMinutes(15);
+
+        private long maximumSize = 100_000;
+    }
+}
@@ -0,0 +1,33 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import com.quadrinhos.hq.bancohq.search.ItemSearchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder searchIndexMetrics(final ItemSearchIndex searchIndex) {
+        return registry -> {
+            Gauge.builder("catalogo.search.index.documents", searchIndex, index -> index.footprint().documents())
+                    .description("Itens presentes no índice de busca")
+                    .register(registry);
+            Gauge.builder("catalogo.search.index.bitmaps", searchIndex, index -> index.footprint().bitmaps())
+                    .description("Bitmaps de status, editora, série e tag")
+                    .register(registry);
+            Gauge.builder("catalogo.search.index.bitmap.bytes", searchIndex,
+                    index -> index.footprint().bitmapBytes())
+                    .description("Memória estimada dos bitmaps")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("catalogo.search.index.postings.bytes", searchIndex,
+                    index -> index.footprint().postingBytes())
+                    .description("Memória estimada das listas de postagem de palavras e trigramas")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -1,8 +1,10 @@
 package com.quadrinhos.hq.bancohq.config;
 
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @Getter
 @Setter
@@ -10,4 +12,80 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class StorageProperties {
 
     private String location = "uploads";
+
+    private final Renditions renditions = new Renditions();
+
+    private final Previews previews = new Previews();
+
+    private final Uploads uploads = new Uploads();
+
+    @Getter
+    @Setter
+    public static class Renditions {
+
+        /**
+         * Threads que geram miniaturas. Decodificar e redimensionar usa CPU e uma cópia da imagem em memória,
+         * por isso o padrão é uma só.
+         */
+        private int threads = 1;
+
+        /**
+         * Capas aguardando geração. Com a fila cheia o envio não espera: a miniatura é gerada no primeiro
+         * acesso.
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * Qualidade do JPEG, de 0 a 1.
+         */
+        private float quality = 0.8f;
+    }
+
+    @Getter
+    @Setter
+    public static class Previews {
+
+        /**
+         * Threads que leem as capas durante o preenchimento de placeholders de itens antigos.
+         */
+        private int backfillThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Capas lidas por rodada do preenchimento; os itens de cada rodada são gravados numa transação.
+         */
+        private int backfillBatchSize = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Uploads {
+
+        /**
+         * Tamanho de cada parte de um envio retomável; só a última pode ser menor.
+         */
+        private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+        private DataSize maxSize = DataSize.ofMegabytes(100);
+
+        /**
+         * Envios abertos ao mesmo tempo por usuário.
+         */
+        private int maxSessionsPerOwner = 5;
+
+        /**
+         * Soma dos tamanhos declarados dos envios em andamento, de todos os usuários: limita o espaço em
+         * disco ocupado por arquivos {@code .part}.
+         */
+        private DataSize maxPendingSize = DataSize.ofGigabytes(2);
+
+        /**
+         * Tempo sem receber partes depois do qual um envio incompleto é descartado.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Intervalo entre as limpezas de envios expirados.
+         */
+        private Duration cleanupInterval = Duration.ofMinutes(15);
+    }
 }
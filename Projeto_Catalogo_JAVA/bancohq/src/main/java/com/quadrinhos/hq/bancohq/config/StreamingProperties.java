@@ -0,0 +1,18 @@
+package com.quadrinhos.hq.bancohq.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalogo.streaming")
+public class StreamingProperties {
+
+    /**
+     * Tempo máximo de uma resposta {@code StreamingResponseBody}, como as exportações do catálogo inteiro.
+     * As demais requisições assíncronas seguem {@code spring.mvc.async.request-timeout}.
+     */
+    private Duration requestTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,48 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+/**
+ * Leitura do cabeçalho {@code Accept-Encoding} compartilhada pelas respostas que podem sair em gzip.
+ * Uma codificação com {@code q=0} é recusada, mesmo que o curinga {@code *} aceite as demais.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = qualityOf(parts) > 0;
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * Valores de {@code q} malformados contam como recusa.
+     */
+    private static double qualityOf(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(parameter.indexOf('=') + 1).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -3,22 +3,31 @@ package com.quadrinhos.hq.bancohq.controller;
 import com.quadrinhos.hq.bancohq.dto.LoginRequest;
 import com.quadrinhos.hq.bancohq.dto.LoginResponse;
 import com.quadrinhos.hq.bancohq.dto.RegisterRequest;
+import com.quadrinhos.hq.bancohq.exception.LoginCapacityExceededException;
 import com.quadrinhos.hq.bancohq.model.UserAccount;
 import com.quadrinhos.hq.bancohq.security.JwtTokenProvider;
+import com.quadrinhos.hq.bancohq.security.LoginThrottle;
+import com.quadrinhos.hq.bancohq.security.PasswordHashingExecutor;
 import com.quadrinhos.hq.bancohq.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+/**
+ * Login e cadastro calculam BCrypt no {@link PasswordHashingExecutor} e respondem de forma assíncrona;
+ * a thread do Tomcat é liberada enquanto o hash é calculado.
+ */
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -27,40 +36,70 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserService userService;
+    private final PasswordHashingExecutor passwordHashing;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> authenticate(@Valid @RequestBody final LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
+    public CompletableFuture<ResponseEntity<LoginResponse>> authenticate(
+            @Valid @RequestBody final LoginRequest request, final HttpServletRequest httpRequest) {
+        String username = request.getUsername().toLowerCase();
+        String address = httpRequest.getRemoteAddr();
+        loginThrottle.reserve(username, address);
+        try {
+            return passwordHashing.submit(() -> {
+                Authentication authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+                loginThrottle.succeeded(username, address);
+                UserAccount user = (UserAccount) authentication.getPrincipal();
+                return ResponseEntity.ok(toResponse(tokenProvider.generateToken(authentication), user));
+            });
+        } catch (LoginCapacityExceededException exception) {
+            loginThrottle.release(username, address);
+            throw exception;
+        }
+    }
 
-        UserAccount user = (UserAccount) authentication.getPrincipal();
-        LoginResponse response = LoginResponse.builder()
-                .token(token)
-                .username(user.getUsername())
-                .fullName(user.getFullName())
-                .role(user.getRole().name())
-                .build();
-        return ResponseEntity.ok(response);
+    /**
+     * Revoga todos os tokens do usuário autenticado, inclusive o usado nesta requisição. Responde
+     * {@code 409} quando a revogação está desligada.
+     */
+    @PostMapping("/revoke")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> revoke(final Authentication authentication) {
+        userService.revokeTokens(authentication.getName());
+        return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Cada cadastro conta como tentativa do endereço IP, já que custa dois BCrypt.
+     */
     @PostMapping("/register")
-    public ResponseEntity<LoginResponse> register(@Valid @RequestBody final RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> register(
+            @Valid @RequestBody final RegisterRequest request, final HttpServletRequest httpRequest) {
+        String address = httpRequest.getRemoteAddr();
+        loginThrottle.reserve(null, address);
         String normalizedUsername = request.getUsername().toLowerCase();
         request.setUsername(normalizedUsername);
-        UserAccount user = userService.register(request);
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(normalizedUsername, request.getPassword()));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = tokenProvider.generateToken(authentication);
+        try {
+            return passwordHashing.submit(() -> {
+                UserAccount user = userService.register(request);
+                Authentication authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(normalizedUsername, request.getPassword()));
+                String token = tokenProvider.generateToken(authentication);
+                return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(token, user));
+            });
+        } catch (LoginCapacityExceededException exception) {
+            loginThrottle.release(null, address);
+            throw exception;
+        }
+    }
 
-        LoginResponse response = LoginResponse.builder()
+    private LoginResponse toResponse(final String token, final UserAccount user) {
+        return LoginResponse.builder()
                 .token(token)
                 .username(user.getUsername())
                 .fullName(user.getFullName())
                 .role(user.getRole().name())
                 .build();
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 }
@@ -0,0 +1,74 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import com.quadrinhos.hq.bancohq.dto.CoverRenditions;
+import com.quadrinhos.hq.bancohq.service.FileStorageService;
+import com.quadrinhos.hq.bancohq.service.impl.CoverRenditionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Serve as miniaturas de capa em {@code /files/renditions/<largura>/<caminho da original>.jpg}, antes do
+ * handler de {@code /files/**}. A URL muda junto com o conteúdo da capa, então a resposta pode ser guardada
+ * pelo navegador por um ano sem revalidação. Miniaturas já geradas saem pelo {@link FileResponseWriter}
+ * na própria requisição; as demais são geradas e enviadas de forma assíncrona. Se a miniatura não puder ser
+ * gerada agora, a requisição é redirecionada para a original sem cache, e o próximo acesso tenta de novo.
+ */
+@RestController
+@RequestMapping("/files/renditions")
+@RequiredArgsConstructor
+public class CoverRenditionController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final CoverRenditionService coverRenditionService;
+    private final FileStorageService fileStorageService;
+    private final FileResponseWriter fileResponseWriter;
+
+    /**
+     * Retorna {@code null} (resposta já escrita) quando a miniatura existe. A original passa pelo
+     * {@link FileStorageService#locate(String)}, que recusa caminhos fora do armazenamento, no diretório
+     * temporário ou de miniaturas.
+     */
+    @GetMapping("/{width}/{*path}")
+    public CompletableFuture<ResponseEntity<Resource>> findRendition(@PathVariable final int width,
+            @PathVariable final String path, final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        String source = CoverRenditions.sourceRelativePath(path.substring(1));
+        if (source == null || !CoverRenditions.WIDTHS.contains(width)
+                || fileStorageService.locate("/files/" + source) == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return null;
+        }
+        CompletableFuture<Optional<Path>> rendition = coverRenditionService.obtain(source, width);
+        if (rendition.isDone() && rendition.join().isPresent()) {
+            fileResponseWriter.write(request, response, rendition.join().get());
+            return null;
+        }
+        return rendition.thenApply(generated -> generated
+                .<ResponseEntity<Resource>>map(file -> ResponseEntity.ok()
+                        .cacheControl(IMMUTABLE)
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .body(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                        .cacheControl(CacheControl.noStore())
+                        .location(UriComponentsBuilder.fromPath("/files/" + source).encode().build().toUri())
+                        .build()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import com.quadrinhos.hq.bancohq.dto.CoverUploadRequest;
+import com.quadrinhos.hq.bancohq.dto.CoverUploadResponse;
+import com.quadrinhos.hq.bancohq.service.CoverUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.security.Principal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Envio retomável de capas grandes, alternativa ao multipart de {@code /api/items}: cada parte é uma
+ * requisição curta e, se a conexão cair, só a parte interrompida é reenviada. O envio é concluído ao
+ * criar ou atualizar o item com {@code coverUploadId}.
+ */
+@RestController
+@RequestMapping("/api/cover-uploads")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+public class CoverUploadController {
+
+    private final CoverUploadService coverUploadService;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CoverUploadResponse> create(@Valid @RequestBody final CoverUploadRequest request,
+            final Principal principal) {
+        CoverUploadResponse response = coverUploadService.create(request, principal.getName());
+        return ResponseEntity.created(URI.create("/api/cover-uploads/" + response.getId())).body(response);
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<CoverUploadResponse> find(@PathVariable final String uploadId, final Principal principal) {
+        return ResponseEntity.ok(coverUploadService.find(uploadId, principal.getName()));
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<CoverUploadResponse> writeChunk(@PathVariable final String uploadId,
+            @PathVariable final int index, final HttpServletRequest request, final Principal principal)
+            throws IOException {
+        try (InputStream content = request.getInputStream()) {
+            return ResponseEntity.ok(coverUploadService.writeChunk(uploadId, principal.getName(), index, content,
+                    request.getContentLengthLong()));
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> cancel(@PathVariable final String uploadId, final Principal principal) {
+        coverUploadService.cancel(uploadId, principal.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import com.quadrinhos.hq.bancohq.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serve as capas enviadas pelo {@link FileResponseWriter}. As miniaturas têm o próprio controller
+ * ({@link CoverRenditionController}), que responde pelo caminho mais específico.
+ */
+@RestController
+@RequiredArgsConstructor
+public class FileController {
+
+    private static final String URL_PREFIX = "/files";
+
+    private final FileStorageService fileStorageService;
+    private final FileResponseWriter fileResponseWriter;
+
+    @GetMapping(URL_PREFIX + "/{*path}")
+    public void findFile(@PathVariable final String path, final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        Path file = fileStorageService.locate(URL_PREFIX + path);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileResponseWriter.write(request, response, file);
+    }
+}
@@ -0,0 +1,191 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Envia um arquivo do armazenamento sem passar o conteúdo pelo heap. No Tomcat (conector NIO, padrão) o
+ * corpo é entregue por sendfile: o handler só informa arquivo e intervalo, e o conector chama
+ * {@link FileChannel#transferTo} direto para o socket depois que a requisição termina. Sem suporte a
+ * sendfile, ou para arquivos pequenos, o corpo sai por {@link FileChannel#transferTo} para o stream da
+ * resposta.
+ *
+ * <p>Trata {@code If-None-Match}/{@code If-Modified-Since} (304), um intervalo {@code Range} (206 ou 416;
+ * pedidos com vários intervalos recebem o arquivo inteiro, o que a RFC 9110 permite) e, quando existe um
+ * {@code <arquivo>.gz} ao lado e o cliente aceita gzip, a variante pré-comprimida. Nomes únicos por
+ * conteúdo (SHA-256 ou UUID, inclusive nas miniaturas) são servidos com cache imutável de um ano; os
+ * demais, por uma hora com revalidação pelo ETag.
+ */
+@Component
+class FileResponseWriter {
+
+    static final String GZIP_SUFFIX = ".gz";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Mesmo limite do DefaultServlet do Tomcat: abaixo dele, preparar o sendfile custa mais que copiar.
+     */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final CacheControl REVALIDATED = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+    private static final Pattern CONTENT_UNIQUE_NAME = Pattern.compile(
+            "([0-9a-f]{64}|[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})\\..+");
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("([0-9a-f]{64})\\.[^.]+");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    void write(final HttpServletRequest request, final HttpServletResponse response, final Path file)
+            throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String name = file.getFileName().toString();
+        MediaType contentType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        String baseEtag = entityTag(name, attributes);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        Path body = file;
+        long length = attributes.size();
+        String etag = "\"" + baseEtag + "\"";
+        Path compressed = file.resolveSibling(name + GZIP_SUFFIX);
+        boolean hasCompressed = Files.isRegularFile(compressed);
+        if (hasCompressed) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (request.getHeader(HttpHeaders.RANGE) == null
+                    && AcceptEncoding.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                body = compressed;
+                length = Files.size(compressed);
+                etag = "\"" + baseEtag + "-gz\"";
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+
+        boolean contentUnique = CONTENT_UNIQUE_NAME.matcher(name).matches();
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                (contentUnique ? IMMUTABLE : REVALIDATED).getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length;
+        if (body == file) {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            long[] range = requestedRange(request, etag, lastModified, length);
+            if (range == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range != null) {
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || end == start) {
+            return;
+        }
+        if (end - start >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, body.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, output);
+            }
+        }
+    }
+
+    /**
+     * Intervalo {@code [início, fim)} pedido, {@code null} para o arquivo inteiro ou {@link #UNSATISFIABLE}.
+     * {@code If-Range} que não corresponde à versão atual também resulta no arquivo inteiro.
+     */
+    private static long[] requestedRange(final HttpServletRequest request, final String etag,
+            final long lastModified, final long length) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            try {
+                if (lastModified / 1000 > request.getDateHeader(HttpHeaders.IF_RANGE) / 1000) {
+                    return null;
+                }
+            } catch (IllegalArgumentException ex) {
+                // ETag de outra versão
+                return null;
+            }
+        }
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+        if (!matcher.matches() || matcher.group(1).isEmpty() && matcher.group(2).isEmpty()) {
+            return null;
+        }
+        try {
+            if (matcher.group(1).isEmpty()) {
+                long suffix = Long.parseLong(matcher.group(2));
+                return suffix == 0 ? UNSATISFIABLE : new long[] {Math.max(0, length - suffix), length};
+            }
+            long first = Long.parseLong(matcher.group(1));
+            long last = matcher.group(2).isEmpty() ? length - 1 : Long.parseLong(matcher.group(2));
+            if (first >= length || last < first) {
+                return UNSATISFIABLE;
+            }
+            return new long[] {first, Math.min(last, length - 1) + 1};
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * ETag forte: o próprio SHA-256 para arquivos endereçados pelo conteúdo; nos demais (inclusive
+     * miniaturas), tamanho e data de modificação, como fazem nginx e Apache.
+     */
+    private static String entityTag(final String name, final BasicFileAttributes attributes) {
+        Matcher matcher = CONTENT_ADDRESSED_NAME.matcher(name);
+        if (matcher.matches()) {
+            return matcher.group(1);
+        }
+        return Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+    }
+}
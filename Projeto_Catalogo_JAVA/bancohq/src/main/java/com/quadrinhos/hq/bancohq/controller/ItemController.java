@@ -1,24 +1,47 @@
 package com.quadrinhos.hq.bancohq.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quadrinhos.hq.bancohq.cache.CatalogVersion;
+import com.quadrinhos.hq.bancohq.dto.ImagePreviewBackfillResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse;
 import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemPageRequest;
+import com.quadrinhos.hq.bancohq.dto.ItemPageResponse;
 import com.quadrinhos.hq.bancohq.dto.ItemRequest;
 import com.quadrinhos.hq.bancohq.dto.ItemResponse;
 import com.quadrinhos.hq.bancohq.dto.UpdateItemStatusRequest;
 import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.service.CoverUploadService;
 import com.quadrinhos.hq.bancohq.service.FileStorageService;
+import com.quadrinhos.hq.bancohq.service.ItemExportService;
 import com.quadrinhos.hq.bancohq.service.ItemService;
+import com.quadrinhos.hq.bancohq.service.impl.ImagePreviewBackfill;
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,11 +50,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/api/items")
@@ -39,34 +66,39 @@ import org.springframework.web.multipart.MultipartFile;
 @Validated
 public class ItemController {
 
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+
     private final ItemService itemService;
+    private final ItemExportService itemExportService;
     private final FileStorageService fileStorageService;
+    private final CoverUploadService coverUploadService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final ImagePreviewBackfill imagePreviewBackfill;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<ItemResponse> create(@Valid @RequestBody final ItemRequest request) {
-        normalizeImageField(request);
-        ItemResponse response = itemService.create(request);
+    public ResponseEntity<ItemResponse> create(@Valid @RequestBody final ItemRequest request,
+            final Principal principal) {
+        ItemResponse response = saveWithCover(request, null, principal, null, itemService::create);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<ItemResponse> createWithCover(@Valid @RequestPart("item") final ItemRequest request,
-            @RequestPart(value = "cover", required = false) final MultipartFile cover) {
-        prepareCover(request, cover);
-        ItemResponse response = itemService.create(request);
+            @RequestPart(value = "cover", required = false) final MultipartFile cover, final Principal principal) {
+        ItemResponse response = saveWithCover(request, cover, principal, null, itemService::create);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ItemResponse> update(@PathVariable final Long id,
-            @Valid @RequestBody final ItemRequest request) {
+            @Valid @RequestBody final ItemRequest request, final Principal principal) {
         ItemResponse existing = itemService.findById(id);
-        normalizeImageField(request);
-        ItemResponse response = itemService.update(id, request);
-        removePreviousImageIfNecessary(existing.getImageUrl(), response.getImageUrl());
+        ItemResponse response = saveWithCover(request, null, principal, existing.getImageUrl(),
+                changes -> itemService.update(id, changes));
         return ResponseEntity.ok(response);
     }
 
@@ -74,11 +106,10 @@ public class ItemController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ItemResponse> updateWithCover(@PathVariable final Long id,
             @Valid @RequestPart("item") final ItemRequest request,
-            @RequestPart(value = "cover", required = false) final MultipartFile cover) {
+            @RequestPart(value = "cover", required = false) final MultipartFile cover, final Principal principal) {
         ItemResponse existing = itemService.findById(id);
-        prepareCover(request, cover);
-        ItemResponse response = itemService.update(id, request);
-        removePreviousImageIfNecessary(existing.getImageUrl(), response.getImageUrl());
+        ItemResponse response = saveWithCover(request, cover, principal, existing.getImageUrl(),
+                changes -> itemService.update(id, changes));
         return ResponseEntity.ok(response);
     }
 
@@ -90,10 +121,18 @@ public class ItemController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Responde 304 sem serializar o item quando o {@code If-None-Match} (ou o {@code If-Modified-Since})
+     * corresponde à versão em cache.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ItemResponse> findById(@PathVariable final Long id) {
+    public ResponseEntity<ItemResponse> findById(@PathVariable final Long id, final WebRequest webRequest) {
         ItemResponse response = itemService.findById(id);
-        return ResponseEntity.ok(response);
+        long lastModified = response.getUpdatedAt() == null ? -1 : response.getUpdatedAt().toEpochMilli();
+        if (webRequest.checkNotModified("\"" + response.getId() + "-" + response.getVersion() + "\"", lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     @GetMapping
@@ -102,31 +141,141 @@ public class ItemController {
             @RequestParam(name = "publisher", required = false) final String publisher,
             @RequestParam(name = "series", required = false) final String series,
             @RequestParam(name = "status", required = false) final String status,
-            @RequestParam(name = "tags", required = false) final List<String> tags) {
-        ItemFilter filter = ItemFilter.builder()
-                .term(term)
-                .publisher(publisher)
-                .series(series)
-                .status(parseStatus(status))
-                .tags(parseTags(tags))
-                .build();
-        List<ItemResponse> response = itemService.search(filter);
-        return ResponseEntity.ok(response);
+            @RequestParam(name = "tags", required = false) final List<String> tags,
+            final WebRequest webRequest) {
+        ItemFilter filter = buildFilter(term, publisher, series, status, tags);
+        return ifCatalogModified(webRequest, "list", response -> response.body(itemService.search(filter)));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamNdjson(
+            @RequestParam(name = "term", required = false) final String term,
+            @RequestParam(name = "publisher", required = false) final String publisher,
+            @RequestParam(name = "series", required = false) final String series,
+            @RequestParam(name = "status", required = false) final String status,
+            @RequestParam(name = "tags", required = false) final List<String> tags,
+            final WebRequest webRequest) {
+        ItemFilter filter = buildFilter(term, publisher, series, status, tags);
+        return ifCatalogModified(webRequest, "ndjson", response -> response
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> writeItems(filter, output, true)));
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamJsonArray(
+            @RequestParam(name = "term", required = false) final String term,
+            @RequestParam(name = "publisher", required = false) final String publisher,
+            @RequestParam(name = "series", required = false) final String series,
+            @RequestParam(name = "status", required = false) final String status,
+            @RequestParam(name = "tags", required = false) final List<String> tags,
+            final WebRequest webRequest) {
+        ItemFilter filter = buildFilter(term, publisher, series, status, tags);
+        return ifCatalogModified(webRequest, "stream", response -> response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> writeItems(filter, output, false)));
+    }
+
+    /**
+     * Exporta o resultado do filtro no formato da importação. Com {@code Accept-Encoding: gzip} o CSV é
+     * comprimido enquanto é gerado.
+     */
+    @GetMapping("/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestParam(name = "term", required = false) final String term,
+            @RequestParam(name = "publisher", required = false) final String publisher,
+            @RequestParam(name = "series", required = false) final String series,
+            @RequestParam(name = "status", required = false) final String status,
+            @RequestParam(name = "tags", required = false) final List<String> tags,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        ItemFilter filter = buildFilter(term, publisher, series, status, tags);
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("itens.csv")
+                        .build()
+                        .toString());
+        if (!gzip) {
+            return response.body(output -> itemExportService.exportCsv(filter, output));
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(output -> {
+                    GZIPOutputStream compressed = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+                    itemExportService.exportCsv(filter, compressed);
+                    compressed.finish();
+                });
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<ItemPageResponse> findPage(
+            @RequestParam(name = "term", required = false) final String term,
+            @RequestParam(name = "publisher", required = false) final String publisher,
+            @RequestParam(name = "series", required = false) final String series,
+            @RequestParam(name = "status", required = false) final String status,
+            @RequestParam(name = "tags", required = false) final List<String> tags,
+            @RequestParam(name = "size") final Integer size,
+            @RequestParam(name = "sort", required = false) final String sort,
+            @RequestParam(name = "cursor", required = false) final String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "false") final boolean includeTotal,
+            final WebRequest webRequest) {
+        ItemFilter filter = buildFilter(term, publisher, series, status, tags);
+        ItemPageRequest pageRequest = buildPageRequest(size, sort, cursor, includeTotal);
+        return ifCatalogModified(webRequest, "page",
+                response -> response.body(withLinks(itemService.searchPage(filter, pageRequest))));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ItemFacetsResponse> facets(
+            @RequestParam(name = "term", required = false) final String term,
+            @RequestParam(name = "publisher", required = false) final String publisher,
+            @RequestParam(name = "series", required = false) final String series,
+            @RequestParam(name = "status", required = false) final String status,
+            @RequestParam(name = "tags", required = false) final List<String> tags,
+            @RequestParam(name = "tagLimit", required = false) final Integer tagLimit,
+            final WebRequest webRequest) {
+        ItemFilter filter = buildFilter(term, publisher, series, status, tags);
+        return ifCatalogModified(webRequest, "facets", response -> response.body(
+                itemService.facets(filter, ItemFacetsResponse.effectiveTagLimit(tagLimit))));
     }
 
     @GetMapping("/wishlist")
-    public ResponseEntity<List<ItemResponse>> findWishlist() {
+    public ResponseEntity<List<ItemResponse>> findWishlist(final WebRequest webRequest) {
         ItemFilter filter = ItemFilter.builder().status(ItemStatus.WISHLIST).build();
-        List<ItemResponse> response = itemService.search(filter);
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, "list", response -> response.body(itemService.search(filter)));
+    }
+
+    @GetMapping(value = "/wishlist", params = "size")
+    public ResponseEntity<ItemPageResponse> findWishlistPage(
+            @RequestParam(name = "size") final Integer size,
+            @RequestParam(name = "sort", required = false) final String sort,
+            @RequestParam(name = "cursor", required = false) final String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "false") final boolean includeTotal,
+            final WebRequest webRequest) {
+        ItemFilter filter = ItemFilter.builder().status(ItemStatus.WISHLIST).build();
+        ItemPageRequest pageRequest = buildPageRequest(size, sort, cursor, includeTotal);
+        return ifCatalogModified(webRequest, "page",
+                response -> response.body(withLinks(itemService.searchPage(filter, pageRequest))));
     }
 
-    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    /**
+     * Calcula o placeholder das capas enviadas antes desse recurso. Responde 202 na hora; o andamento é
+     * consultado em {@code Location}. Pode ser chamado de novo: só itens sem placeholder são lidos.
+     */
+    @PostMapping("/image-previews/backfill")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ItemResponse>> importCsv(@RequestPart("file") final MultipartFile file)
-            throws IOException {
-        List<ItemResponse> response = itemService.importFromCsv(file.getInputStream());
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<ImagePreviewBackfillResponse> backfillImagePreviews() {
+        ImagePreviewBackfillResponse response = imagePreviewBackfill.start();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/items/image-previews/backfill/" + response.getId()))
+                .body(response);
+    }
+
+    @GetMapping("/image-previews/backfill/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImagePreviewBackfillResponse> findImagePreviewBackfill(@PathVariable final String jobId) {
+        return ResponseEntity.ok(imagePreviewBackfill.find(jobId));
     }
 
     @DeleteMapping("/{id}")
@@ -138,13 +287,132 @@ public class ItemController {
         return ResponseEntity.noContent().build();
     }
 
-    private void prepareCover(final ItemRequest request, final MultipartFile cover) {
+    /**
+     * Consultas de lista são validadas pela versão global do catálogo, lida antes da busca: uma escrita
+     * concorrente pode no máximo gerar um ETag já desatualizado, nunca confirmar um resultado antigo.
+     * Quando o cliente já tem a versão atual a busca nem é executada.
+     */
+    private <T> ResponseEntity<T> ifCatalogModified(final WebRequest webRequest, final String variant,
+            final Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> response) {
+        if (webRequest.checkNotModified(catalogVersion.etag(variant), catalogVersion.lastModified())) {
+            return null;
+        }
+        return response.apply(ResponseEntity.ok().cacheControl(CacheControl.noCache()));
+    }
+
+    /**
+     * Serializa cada item assim que ele sai do cursor do banco. O gerador não faz flush por item: os
+     * bytes seguem para o cliente conforme os buffers do gerador e do Tomcat enchem.
+     */
+    private void writeItems(final ItemFilter filter, final OutputStream output, final boolean ndjson)
+            throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ItemResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            itemService.streamSearch(filter, item -> {
+                try {
+                    writer.writeValue(generator, item);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    private ItemFilter buildFilter(final String term, final String publisher, final String series,
+            final String status, final List<String> tags) {
+        return ItemFilter.builder()
+                .term(term)
+                .publisher(publisher)
+                .series(series)
+                .status(parseStatus(status))
+                .tags(parseTags(tags))
+                .build();
+    }
+
+    private ItemPageRequest buildPageRequest(final Integer size, final String sort, final String cursor,
+            final boolean includeTotal) {
+        return ItemPageRequest.builder()
+                .size(size)
+                .sort(sort)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
+                .build();
+    }
+
+    private ItemPageResponse withLinks(final ItemPageResponse page) {
+        ItemPageResponse.Links links = ItemPageResponse.Links.builder()
+                .self(ServletUriComponentsBuilder.fromCurrentRequest().toUriString())
+                .next(pageLink(page, page.getNextCursor()))
+                .prev(pageLink(page, page.getPrevCursor()))
+                .build();
+        return page.toBuilder().links(links).build();
+    }
+
+    private String pageLink(final ItemPageResponse page, final String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("size", page.getSize())
+                .replaceQueryParam("sort", page.getSort())
+                .replaceQueryParam("cursor", cursor)
+                .toUriString();
+    }
+
+    /**
+     * Grava o item com a capa do multipart, de um envio em partes ou da {@code imageUrl} informada, nessa
+     * ordem. Uma capa enviada soma uma referência ao blob, que só fica com o item se a gravação der certo;
+     * a referência anterior do item é devolvida mesmo quando a capa enviada é a mesma. A capa de um envio em
+     * partes fica com a sessão até o item ser gravado, de modo que uma gravação que falhe não perde o envio.
+     */
+    private ItemResponse saveWithCover(final ItemRequest request, final MultipartFile cover,
+            final Principal principal, final String previousImageUrl, final Function<ItemRequest, ItemResponse> save) {
+        String storedImageUrl = null;
+        String uploadId = null;
         if (cover != null && !cover.isEmpty()) {
-            String imageUrl = fileStorageService.store(cover);
-            request.setImageUrl(imageUrl);
+            storedImageUrl = fileStorageService.store(cover);
+            useCover(request, storedImageUrl);
+        } else if (StringUtils.hasText(request.getCoverUploadId())) {
+            uploadId = request.getCoverUploadId();
+            useCover(request, coverUploadService.complete(uploadId, principal.getName()));
         } else {
             normalizeImageField(request);
         }
+        ItemResponse response;
+        try {
+            response = save.apply(request);
+        } catch (RuntimeException ex) {
+            if (storedImageUrl != null) {
+                fileStorageService.delete(storedImageUrl);
+            }
+            throw ex;
+        }
+        if (uploadId != null) {
+            coverUploadService.confirm(uploadId, principal.getName());
+        }
+        if (storedImageUrl != null || uploadId != null) {
+            removePreviousImageIfNecessary(previousImageUrl, null);
+        } else {
+            removePreviousImageIfNecessary(previousImageUrl, response.getImageUrl());
+        }
+        return response;
+    }
+
+    private void useCover(final ItemRequest request, final String imageUrl) {
+        request.setImageUrl(imageUrl);
+        request.setImagePreview(fileStorageService.describe(imageUrl));
     }
 
     private void normalizeImageField(final ItemRequest request) {
@@ -0,0 +1,69 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import com.quadrinhos.hq.bancohq.service.ItemImportService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/items/import")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ItemImportController {
+
+    private final ItemImportService itemImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ItemImportJobResponse> importCsv(@RequestPart("file") final MultipartFile file,
+            @RequestParam(name = "mode", required = false) final String mode) throws IOException {
+        Mode importMode = Mode.fromString(mode);
+        ItemImportJobResponse response;
+        try (InputStream content = file.getInputStream()) {
+            response = itemImportService.submit(file.getOriginalFilename(), content, importMode);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/items/import/" + response.getId()))
+                .body(response);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ItemImportJobResponse> findJob(@PathVariable final String jobId) {
+        return ResponseEntity.ok(itemImportService.findJob(jobId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ItemImportJobResponse> cancel(@PathVariable final String jobId) {
+        return ResponseEntity.ok(itemImportService.cancel(jobId));
+    }
+
+    @GetMapping("/{jobId}/rejected")
+    public ResponseEntity<Resource> rejectedReport(@PathVariable final String jobId) {
+        Resource report = itemImportService.rejectedReport(jobId);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("rejeitadas-" + jobId + ".csv")
+                        .build()
+                        .toString())
+                .body(report);
+    }
+}
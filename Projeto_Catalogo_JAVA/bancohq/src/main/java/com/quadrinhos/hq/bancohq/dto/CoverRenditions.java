@@ -0,0 +1,78 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Esquema de URLs das miniaturas de capa. Cada capa local {@code /files/<caminho>} tem versões JPEG
+ * progressivas em {@code /files/renditions/<largura>/<caminho>.jpg}, nas larguras de {@link #WIDTHS}:
+ * a URL depende só da original, então o cliente monta o {@code srcset} sem consultar o servidor.
+ * Capas externas (http/https) não têm miniaturas.
+ */
+public final class CoverRenditions {
+
+    public static final List<Integer> WIDTHS = List.of(160, 320, 640);
+    public static final String DIRECTORY = "renditions";
+
+    private static final String FILES_PREFIX = "/files/";
+    private static final String URL_PREFIX = FILES_PREFIX + DIRECTORY + "/";
+    private static final String EXTENSION = ".jpg";
+
+    private CoverRenditions() {
+    }
+
+    /**
+     * Caminho relativo da miniatura dentro do diretório de armazenamento.
+     */
+    public static String relativePath(final String sourceRelativePath, final int width) {
+        return DIRECTORY + "/" + width + "/" + sourceRelativePath + EXTENSION;
+    }
+
+    /**
+     * Caminho relativo da original a partir do trecho da URL depois de {@code /files/renditions/<largura>/},
+     * ou {@code null} se o trecho não for de uma miniatura.
+     */
+    public static String sourceRelativePath(final String renditionPath) {
+        if (renditionPath == null || !renditionPath.endsWith(EXTENSION)) {
+            return null;
+        }
+        String source = renditionPath.substring(0, renditionPath.length() - EXTENSION.length());
+        return isLocal(FILES_PREFIX + source) ? source : null;
+    }
+
+    /**
+     * URLs das miniaturas por largura, em ordem crescente, ou mapa vazio para capas sem miniatura.
+     */
+    public static Map<Integer, String> urlsFor(final String imageUrl) {
+        if (!isLocal(imageUrl)) {
+            return Collections.emptyMap();
+        }
+        String source = imageUrl.substring(FILES_PREFIX.length());
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (int width : WIDTHS) {
+            urls.put(width, URL_PREFIX + width + "/" + source + EXTENSION);
+        }
+        return Collections.unmodifiableMap(urls);
+    }
+
+    /**
+     * Valor pronto para o atributo {@code srcset}, ex.: {@code "/files/renditions/160/... 160w, ..."}.
+     */
+    public static String srcset(final String imageUrl) {
+        Map<Integer, String> urls = urlsFor(imageUrl);
+        if (urls.isEmpty()) {
+            return null;
+        }
+        return urls.entrySet().stream()
+                .map(entry -> entry.getValue() + " " + entry.getKey() + "w")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static boolean isLocal(final String imageUrl) {
+        return imageUrl != null && imageUrl.startsWith(FILES_PREFIX) && !imageUrl.startsWith(URL_PREFIX)
+                && imageUrl.length() > FILES_PREFIX.length() && !imageUrl.contains("..");
+    }
+}
@@ -0,0 +1,29 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CoverUploadRequest {
+
+    @NotBlank
+    @Size(max = 255)
+    private String fileName;
+
+    @NotNull
+    @Positive
+    private Long size;
+
+    /**
+     * SHA-256 do arquivo inteiro, em hexadecimal; conferido quando o envio é concluído.
+     */
+    @NotBlank
+    @Pattern(regexp = "[0-9a-fA-F]{64}")
+    private String sha256;
+}
@@ -0,0 +1,33 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CoverUploadResponse {
+
+    private final String id;
+    private final String fileName;
+    private final long size;
+    private final long chunkSize;
+    private final int chunkCount;
+    private final long receivedBytes;
+
+    /**
+     * Partes já gravadas, em intervalos de índices; as que faltam são as que o cliente deve reenviar.
+     */
+    private final List<ChunkRange> receivedChunks;
+    private final boolean complete;
+    private final LocalDateTime expiresAt;
+
+    @Getter
+    @Builder
+    public static class ChunkRange {
+
+        private final int first;
+        private final int last;
+    }
+}
@@ -0,0 +1,34 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ImagePreviewBackfillResponse {
+
+    private final String id;
+    private final Status status;
+
+    /**
+     * Capas distintas lidas até agora.
+     */
+    private final long images;
+    private final long itemsUpdated;
+
+    /**
+     * Capas ausentes ou que o ImageIO não conseguiu ler; os itens continuam sem placeholder.
+     */
+    private final long unreadable;
+    private final long elapsedMillis;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final String error;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
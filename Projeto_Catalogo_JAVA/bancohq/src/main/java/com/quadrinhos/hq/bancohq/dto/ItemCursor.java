@@ -0,0 +1,46 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import com.quadrinhos.hq.bancohq.model.Item;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Posição opaca de paginação por chave: o valor da ordenação e o id do último item visto.
+ * {@code backward} indica que a página deve ser lida antes da posição (link "prev").
+ */
+public record ItemCursor(ItemSortField field, Sort.Direction direction, boolean backward, Long id, String key) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    public static ItemCursor after(final ItemSortField field, final Sort.Direction direction, final Item item) {
+        return new ItemCursor(field, direction, false, item.getId(), field.keyOf(item));
+    }
+
+    public static ItemCursor before(final ItemSortField field, final Sort.Direction direction, final Item item) {
+        return new ItemCursor(field, direction, true, item.getId(), field.keyOf(item));
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, field.name(), direction.name(), backward ? "B" : "F",
+                String.valueOf(id), key == null ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemCursor decode(final String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 6);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+            ItemSortField field = ItemSortField.valueOf(parts[1]);
+            String key = field == ItemSortField.ID ? null : parts[5];
+            return new ItemCursor(field, Sort.Direction.valueOf(parts[2]), "B".equals(parts[3]),
+                    Long.valueOf(parts[4]), key);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.", ex);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import java.util.Comparator;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ItemFacetsResponse {
+
+    public static final int DEFAULT_TAG_LIMIT = 20;
+    public static final int MAX_TAG_LIMIT = 200;
+
+    /**
+     * Ordem de exibição das contagens: mais frequentes primeiro e, no empate, ordem alfabética.
+     */
+    public static final Comparator<FacetCount> BY_COUNT = Comparator.comparingLong(FacetCount::count).reversed()
+            .thenComparing(FacetCount::value, String.CASE_INSENSITIVE_ORDER);
+
+    private final long total;
+    private final List<FacetCount> publishers;
+    private final List<FacetCount> series;
+    private final List<FacetCount> statuses;
+    private final List<FacetCount> tags;
+
+    public static int effectiveTagLimit(final Integer tagLimit) {
+        if (tagLimit == null || tagLimit <= 0) {
+            return DEFAULT_TAG_LIMIT;
+        }
+        return Math.min(tagLimit, MAX_TAG_LIMIT);
+    }
+
+    public record FacetCount(String value, long count) {
+    }
+}
@@ -10,7 +10,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class ItemFilter {
 
     private final String term;
@@ -31,6 +31,11 @@ public class ItemFilter {
         return Optional.ofNullable(series).map(value -> value.trim().toLowerCase(Locale.ROOT)).orElse(null);
     }
 
+    public boolean hasCriteria() {
+        return term != null || publisher != null || series != null || status != null
+                || !normalizedTags().isEmpty();
+    }
+
     public Set<String> normalizedTags() {
         if (tags == null || tags.isEmpty()) {
             return Collections.emptySet();
@@ -0,0 +1,62 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ItemImportJobResponse {
+
+    private final String id;
+    private final String fileName;
+    private final Status status;
+    private final Mode mode;
+    private final long parsed;
+    private final long inserted;
+    private final long updated;
+    private final long skipped;
+    private final long rejected;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final Double rowsPerSecond;
+    private final Long etaSeconds;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final String error;
+    private final String rejectedReportUrl;
+
+    /**
+     * {@code INSERT} grava todas as linhas como itens novos; {@code UPSERT} localiza o item existente pela
+     * chave natural (editora + série + número) e só grava o que mudou.
+     */
+    public enum Mode {
+        INSERT,
+        UPSERT;
+
+        public static Mode fromString(final String value) {
+            if (value == null || value.isBlank()) {
+                return INSERT;
+            }
+            try {
+                return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException exception) {
+                throw new IllegalArgumentException("Modo de importação inválido: " + value);
+            }
+        }
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
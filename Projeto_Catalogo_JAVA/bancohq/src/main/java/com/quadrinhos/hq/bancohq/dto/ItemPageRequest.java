@@ -0,0 +1,46 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import java.util.Locale;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+@Getter
+@Builder
+public class ItemPageRequest {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final Integer size;
+    private final String sort;
+    private final String cursor;
+    private final boolean includeTotal;
+
+    public int effectiveSize() {
+        if (size == null || size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    public ItemSortField sortField() {
+        if (sort == null || sort.isBlank()) {
+            return ItemSortField.ID;
+        }
+        return ItemSortField.fromString(sort.split(",")[0]);
+    }
+
+    public Sort.Direction sortDirection() {
+        if (sort == null || !sort.contains(",")) {
+            return Sort.Direction.ASC;
+        }
+        String direction = sort.substring(sort.indexOf(',') + 1).trim().toUpperCase(Locale.ROOT);
+        return Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException("Direção de ordenação inválida: " + sort));
+    }
+
+    public String normalizedSort() {
+        return sortField().getAttribute() + "," + sortDirection().name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder(toBuilder = true)
+public class ItemPageResponse {
+
+    private final List<ItemResponse> data;
+    private final int size;
+    private final String sort;
+    private final Long totalElements;
+    private final String nextCursor;
+    private final String prevCursor;
+    private final Links links;
+
+    @Getter
+    @Builder
+    public static class Links {
+
+        private final String self;
+        private final String next;
+        private final String prev;
+    }
+}
@@ -1,5 +1,7 @@
 package com.quadrinhos.hq.bancohq.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
 import com.quadrinhos.hq.bancohq.model.ItemStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -44,6 +46,18 @@ public class ItemRequest {
     @Size(max = 255)
     private String imageUrl;
 
+    /**
+     * Envio em partes ({@code /api/cover-uploads}) a concluir e usar como capa, no lugar de {@code imageUrl}.
+     */
+    @Size(max = 36)
+    private String coverUploadId;
+
+    /**
+     * Preenchido pelo servidor a partir da capa enviada; não faz parte do JSON.
+     */
+    @JsonIgnore
+    private ImagePreview imagePreview;
+
     @NotNull
     private ItemStatus status;
 
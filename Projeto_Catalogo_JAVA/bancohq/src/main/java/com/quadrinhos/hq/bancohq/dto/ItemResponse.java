@@ -1,6 +1,9 @@
 package com.quadrinhos.hq.bancohq.dto;
 
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
 import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import java.time.Instant;
+import java.util.Map;
 import java.util.Set;
 import lombok.Builder;
 import lombok.Getter;
@@ -19,6 +22,21 @@ public class ItemResponse {
     private final String location;
     private final String description;
     private final String imageUrl;
+    private final ImagePreview imagePreview;
     private final ItemStatus status;
     private final Set<String> tags;
+    private final Long version;
+    private final Instant updatedAt;
+
+    /**
+     * Miniaturas da capa por largura. Derivadas de {@link #imageUrl} na serialização, sem ocupar memória
+     * nos caches e no índice de busca.
+     */
+    public Map<Integer, String> getImageRenditions() {
+        return CoverRenditions.urlsFor(imageUrl);
+    }
+
+    public String getImageSrcset() {
+        return CoverRenditions.srcset(imageUrl);
+    }
 }
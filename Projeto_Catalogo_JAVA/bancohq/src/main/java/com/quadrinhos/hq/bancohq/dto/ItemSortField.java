@@ -0,0 +1,39 @@
+package com.quadrinhos.hq.bancohq.dto;
+
+import com.quadrinhos.hq.bancohq.model.Item;
+import java.util.Arrays;
+import java.util.function.Function;
+
+public enum ItemSortField {
+    ID("id", item -> null),
+    TITLE("title", Item::getTitle),
+    PUBLISHER("publisher", Item::getPublisher),
+    ISSUE_NUMBER("issueNumber", Item::getIssueNumber);
+
+    private final String attribute;
+    private final Function<Item, String> keyExtractor;
+
+    ItemSortField(final String attribute, final Function<Item, String> keyExtractor) {
+        this.attribute = attribute;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public String keyOf(final Item item) {
+        return keyExtractor.apply(item);
+    }
+
+    public static ItemSortField fromString(final String value) {
+        if (value == null || value.isBlank()) {
+            return ItemSortField.ID;
+        }
+        return Arrays.stream(values())
+                .filter(field -> field.attribute.equalsIgnoreCase(value.trim())
+                        || field.name().equalsIgnoreCase(value.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Campo de ordenação inválido: " + value));
+    }
+}
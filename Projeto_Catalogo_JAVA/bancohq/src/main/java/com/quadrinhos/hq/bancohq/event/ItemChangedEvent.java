@@ -0,0 +1,22 @@
+package com.quadrinhos.hq.bancohq.event;
+
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import java.util.List;
+
+/**
+ * Publicado pelas operações de escrita do catálogo; os ouvintes reagem após o commit.
+ */
+public record ItemChangedEvent(List<ItemResponse> upserted, List<Long> deletedIds) {
+
+    public static ItemChangedEvent upserted(final ItemResponse item) {
+        return new ItemChangedEvent(List.of(item), List.of());
+    }
+
+    public static ItemChangedEvent upserted(final List<ItemResponse> items) {
+        return new ItemChangedEvent(List.copyOf(items), List.of());
+    }
+
+    public static ItemChangedEvent deleted(final Long id) {
+        return new ItemChangedEvent(List.of(), List.of(id));
+    }
+}
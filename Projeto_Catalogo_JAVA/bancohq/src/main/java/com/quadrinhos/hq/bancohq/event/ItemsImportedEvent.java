@@ -0,0 +1,11 @@
+package com.quadrinhos.hq.bancohq.event;
+
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import java.util.List;
+
+/**
+ * Publicado a cada lote confirmado por uma importação. Diferente de {@link ItemChangedEvent}, os
+ * ouvintes podem tratá-lo de forma assíncrona e agrupar vários lotes.
+ */
+public record ItemsImportedEvent(List<ItemResponse> items) {
+}
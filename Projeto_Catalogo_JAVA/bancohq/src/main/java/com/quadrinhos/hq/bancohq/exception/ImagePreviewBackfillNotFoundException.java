@@ -0,0 +1,8 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+public class ImagePreviewBackfillNotFoundException extends RuntimeException {
+
+    public ImagePreviewBackfillNotFoundException(final String jobId) {
+        super(String.format("Image preview backfill %s not found", jobId));
+    }
+}
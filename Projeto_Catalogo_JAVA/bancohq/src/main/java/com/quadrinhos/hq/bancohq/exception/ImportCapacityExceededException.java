@@ -0,0 +1,8 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+public class ImportCapacityExceededException extends RuntimeException {
+
+    public ImportCapacityExceededException() {
+        super("Há importações demais em andamento. Tente novamente em alguns minutos.");
+    }
+}
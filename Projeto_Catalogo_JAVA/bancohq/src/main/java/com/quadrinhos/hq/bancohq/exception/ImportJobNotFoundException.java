@@ -0,0 +1,8 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+public class ImportJobNotFoundException extends RuntimeException {
+
+    public ImportJobNotFoundException(final String jobId) {
+        super(String.format("Import job %s not found", jobId));
+    }
+}
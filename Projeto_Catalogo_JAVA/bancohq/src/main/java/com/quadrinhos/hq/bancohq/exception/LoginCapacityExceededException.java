@@ -0,0 +1,8 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+public class LoginCapacityExceededException extends RuntimeException {
+
+    public LoginCapacityExceededException() {
+        super("Há logins demais em andamento. Tente novamente em instantes.");
+    }
+}
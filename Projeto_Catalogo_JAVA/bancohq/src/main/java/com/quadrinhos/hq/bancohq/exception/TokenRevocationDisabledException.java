@@ -0,0 +1,8 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+public class TokenRevocationDisabledException extends RuntimeException {
+
+    public TokenRevocationDisabledException() {
+        super("A revogação de tokens está desligada neste servidor.");
+    }
+}
@@ -0,0 +1,14 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(final long retryAfterSeconds) {
+        super("Tentativas de login demais. Tente novamente mais tarde.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
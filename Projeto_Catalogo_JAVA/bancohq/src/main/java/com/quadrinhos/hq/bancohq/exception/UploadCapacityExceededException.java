@@ -0,0 +1,8 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+public class UploadCapacityExceededException extends RuntimeException {
+
+    public UploadCapacityExceededException(final String message) {
+        super(message);
+    }
+}
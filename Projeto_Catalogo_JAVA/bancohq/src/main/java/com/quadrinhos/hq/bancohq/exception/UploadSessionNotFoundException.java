@@ -0,0 +1,8 @@
+package com.quadrinhos.hq.bancohq.exception;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+
+    public UploadSessionNotFoundException(final String uploadId) {
+        super(String.format("Upload session %s not found", uploadId));
+    }
+}
@@ -3,7 +3,9 @@ package com.quadrinhos.hq.bancohq.mapper;
 import com.quadrinhos.hq.bancohq.dto.ItemRequest;
 import com.quadrinhos.hq.bancohq.dto.ItemResponse;
 import com.quadrinhos.hq.bancohq.model.Item;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Objects;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -27,6 +29,7 @@ public class ItemMapper {
                 .location(normalize(request.getLocation()))
                 .description(normalize(request.getDescription()))
                 .imageUrl(normalize(request.getImageUrl()))
+                .imagePreview(request.getImagePreview())
                 .status(request.getStatus())
                 .tags(tags)
                 .build();
@@ -48,7 +51,13 @@ public class ItemMapper {
         item.setCondition(normalize(request.getCondition()));
         item.setLocation(normalize(request.getLocation()));
         item.setDescription(normalize(request.getDescription()));
-        item.setImageUrl(normalize(request.getImageUrl()));
+        String imageUrl = normalize(request.getImageUrl());
+        if (request.getImagePreview() != null) {
+            item.setImagePreview(request.getImagePreview());
+        } else if (!Objects.equals(item.getImageUrl(), imageUrl)) {
+            item.setImagePreview(null);
+        }
+        item.setImageUrl(imageUrl);
         item.setStatus(request.getStatus());
         item.setTags(tags);
     }
@@ -65,8 +74,11 @@ public class ItemMapper {
                 .location(item.getLocation())
                 .description(item.getDescription())
                 .imageUrl(item.getImageUrl())
+                .imagePreview(item.getImagePreview())
                 .status(item.getStatus())
-                .tags(item.getTags())
+                .tags(Collections.unmodifiableSet(new HashSet<>(item.getTags())))
+                .version(item.getVersion())
+                .updatedAt(item.getUpdatedAt())
                 .build();
     }
 
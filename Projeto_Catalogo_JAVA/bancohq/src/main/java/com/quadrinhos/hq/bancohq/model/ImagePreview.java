@@ -0,0 +1,37 @@
+package com.quadrinhos.hq.bancohq.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dados da capa para desenhar o card antes de baixá-la: dimensões originais (para reservar o espaço com a
+ * proporção certa), cor média e um BlurHash 4x3 (~28 caracteres), decodificado no navegador num borrão
+ * de poucos pixels. Calculado no envio da capa; itens sem ele podem ser preenchidos pela
+ * {@code ImagePreviewBackfill}.
+ */
+@Embeddable
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImagePreview {
+
+    @Column(name = "image_width")
+    private Integer width;
+
+    @Column(name = "image_height")
+    private Integer height;
+
+    /**
+     * Cor média da capa em {@code #rrggbb}.
+     */
+    @Column(name = "image_color", length = 7)
+    private String dominantColor;
+
+    @Column(name = "image_blur_hash", length = 40)
+    private String blurHash;
+}
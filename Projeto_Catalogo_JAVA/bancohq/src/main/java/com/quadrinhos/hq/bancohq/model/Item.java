@@ -3,6 +3,7 @@ package com.quadrinhos.hq.bancohq.model;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -10,8 +11,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.AllArgsConstructor;
@@ -19,9 +24,18 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+    @Index(name = "idx_items_title_id", columnList = "title, id"),
+    @Index(name = "idx_items_publisher_id", columnList = "publisher, id"),
+    @Index(name = "idx_items_issue_number_id", columnList = "issue_number, id"),
+    @Index(name = "idx_items_status_id", columnList = "status, id"),
+    @Index(name = "idx_items_image_url", columnList = "image_url")
+})
 @Getter
 @Setter
 @Builder
@@ -29,8 +43,19 @@ import lombok.Setter;
 @AllArgsConstructor
 public class Item {
 
+    public static final String ID_GENERATOR_TABLE = "id_generators";
+    public static final String ID_GENERATOR_KEY = "items";
+    public static final int ID_ALLOCATION_SIZE = 100;
+    public static final int TAG_BATCH_SIZE = 1000;
+
+    /**
+     * Ids reservados em blocos (hi/lo em tabela, otimizador pooled-lo): ao contrário de IDENTITY, permite
+     * que o Hibernate agrupe os INSERTs em lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "item_ids")
+    @TableGenerator(name = "item_ids", table = ID_GENERATOR_TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = ID_GENERATOR_KEY, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 150)
@@ -60,11 +85,32 @@ public class Item {
     @Column(name = "image_url", length = 255)
     private String imageUrl;
 
+    @Embedded
+    private ImagePreview imagePreview;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private ItemStatus status;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    /**
+     * Incrementada pelo Hibernate a cada UPDATE (inclusive quando só as tags mudam); forma o ETag do item.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    /**
+     * Carregadas sob demanda e em lote: ao acessar as tags de um item, o Hibernate busca com uma única
+     * consulta {@code IN} as tags de até {@link #TAG_BATCH_SIZE} itens já carregados na sessão, em vez
+     * de uma consulta por item.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = TAG_BATCH_SIZE)
     @CollectionTable(name = "item_tags", joinColumns = @JoinColumn(name = "item_id"))
     @Column(name = "tag", length = 40)
     @Builder.Default
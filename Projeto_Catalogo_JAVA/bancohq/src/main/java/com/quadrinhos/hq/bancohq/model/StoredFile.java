@@ -0,0 +1,42 @@
+package com.quadrinhos.hq.bancohq.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entrada do manifesto de arquivos enviados: um blob endereçado pelo SHA-256 do conteúdo e quantos envios
+ * apontam para ele. Arquivos do formato antigo ({@code /files/<uuid>.ext}) não têm entrada.
+ */
+@Entity
+@Table(name = "stored_files")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    /**
+     * Caminho relativo ao diretório de armazenamento, por exemplo {@code 9f/86/9f86d0…08.png}.
+     */
+    @Id
+    @Column(length = 160)
+    private String path;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
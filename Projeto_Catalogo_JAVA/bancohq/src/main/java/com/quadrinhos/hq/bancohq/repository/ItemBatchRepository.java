@@ -0,0 +1,17 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.model.Item;
+import java.util.List;
+
+/**
+ * Inserção em lote para importações grandes.
+ */
+public interface ItemBatchRepository {
+
+    /**
+     * Persiste os itens, envia os INSERTs ao banco (agrupados conforme {@code hibernate.jdbc.batch_size})
+     * e esvazia o contexto de persistência. Os ids ficam preenchidos nas entidades, que saem
+     * desanexadas.
+     */
+    void insertBatch(List<Item> items);
+}
@@ -0,0 +1,21 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.model.Item;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+
+class ItemBatchRepositoryImpl implements ItemBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertBatch(final List<Item> items) {
+        for (Item item : items) {
+            entityManager.persist(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse.FacetCount;
+import com.quadrinhos.hq.bancohq.model.Item;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Contagens agregadas (GROUP BY) usadas pelas facetas quando o índice em memória não está disponível.
+ */
+public interface ItemFacetRepository {
+
+    List<FacetCount> countBy(String attribute, Specification<Item> specification);
+
+    List<FacetCount> countTags(Specification<Item> specification, int limit);
+}
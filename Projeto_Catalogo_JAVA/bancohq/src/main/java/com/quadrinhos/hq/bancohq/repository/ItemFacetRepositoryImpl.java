@@ -0,0 +1,77 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse.FacetCount;
+import com.quadrinhos.hq.bancohq.model.Item;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+class ItemFacetRepositoryImpl implements ItemFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Texto é agrupado sem diferenciar maiúsculas, como as chaves do {@code ItemSearchIndex}; o rótulo de
+     * cada grupo é a menor grafia encontrada.
+     */
+    @Override
+    public List<FacetCount> countBy(final String attribute, final Specification<Item> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Item> root = query.from(Item.class);
+        Path<Object> value = root.get(attribute);
+        Expression<?> key = value;
+        Expression<?> label = value;
+        if (value.getJavaType() == String.class) {
+            key = cb.lower(value.as(String.class));
+            label = cb.least(value.as(String.class));
+        }
+        Expression<Long> count = cb.count(root);
+        query.multiselect(label, count)
+                .where(restrict(specification, root, query, cb, cb.isNotNull(value)))
+                .groupBy(key);
+        return toFacetCounts(entityManager.createQuery(query).getResultList());
+    }
+
+    @Override
+    public List<FacetCount> countTags(final Specification<Item> specification, final int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Item> root = query.from(Item.class);
+        Join<Item, String> tag = root.join("tags");
+        Expression<String> key = cb.lower(cb.trim(tag));
+        Expression<Long> count = cb.countDistinct(root);
+        query.multiselect(key, count)
+                .where(restrict(specification, root, query, cb, cb.notEqual(key, "")))
+                .groupBy(key)
+                .orderBy(cb.desc(count), cb.asc(key));
+        return toFacetCounts(entityManager.createQuery(query).setMaxResults(limit).getResultList());
+    }
+
+    private static Predicate restrict(final Specification<Item> specification, final Root<Item> root,
+            final CriteriaQuery<?> query, final CriteriaBuilder cb, final Predicate keyPredicate) {
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        return predicate == null ? keyPredicate : cb.and(predicate, keyPredicate);
+    }
+
+    private static List<FacetCount> toFacetCounts(final List<Tuple> rows) {
+        List<FacetCount> counts = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            counts.add(new FacetCount(String.valueOf(row.get(0)), row.get(1, Long.class)));
+        }
+        counts.sort(ItemFacetsResponse.BY_COUNT);
+        return counts;
+    }
+}
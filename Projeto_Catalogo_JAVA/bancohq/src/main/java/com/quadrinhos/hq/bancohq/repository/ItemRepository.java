@@ -1,7 +1,35 @@
 package com.quadrinhos.hq.bancohq.repository;
 
 import com.quadrinhos.hq.bancohq.model.Item;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item>,
+        ItemFacetRepository, ItemStreamRepository, ItemBatchRepository {
+
+    /**
+     * Busca o item já com as tags (uma consulta com join), para que ele possa ser convertido fora de
+     * uma transação.
+     */
+    @EntityGraph(attributePaths = "tags")
+    Optional<Item> findWithTagsById(Long id);
+
+    boolean existsByImageUrl(String imageUrl);
+
+    /**
+     * Capas locais de itens ainda sem placeholder, em ordem, a partir de {@code after} (paginação por
+     * chave).
+     */
+    @Query("select distinct i.imageUrl from Item i where i.imageUrl like '/files/%' "
+            + "and i.imagePreview.width is null and i.imageUrl > :after order by i.imageUrl")
+    List<String> findImageUrlsWithoutPreview(@Param("after") String after, Limit limit);
+
+    List<Item> findByImageUrlIn(Collection<String> imageUrls);
 }
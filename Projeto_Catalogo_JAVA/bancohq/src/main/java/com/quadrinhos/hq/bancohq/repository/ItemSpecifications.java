@@ -0,0 +1,143 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.dto.ItemCursor;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemSortField;
+import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Traduz um {@link ItemFilter} em SQL com a mesma semântica de {@code ItemFilterMatcher}.
+ */
+public final class ItemSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ItemSpecifications() {
+    }
+
+    public static Specification<Item> matching(final ItemFilter filter) {
+        Specification<Item> specification = Specification.where(null);
+        if (filter == null) {
+            return specification;
+        }
+
+        String normalizedTerm = filter.normalizedTerm();
+        if (normalizedTerm != null) {
+            specification = specification.and(termContains(normalizedTerm));
+        }
+
+        String normalizedPublisher = filter.normalizedPublisher();
+        if (normalizedPublisher != null) {
+            specification = specification.and(fieldContains("publisher", normalizedPublisher));
+        }
+
+        String normalizedSeries = filter.normalizedSeries();
+        if (normalizedSeries != null) {
+            specification = specification.and(fieldContains("series", normalizedSeries));
+        }
+
+        if (filter.getStatus() != null) {
+            specification = specification.and(hasStatus(filter.getStatus()));
+        }
+
+        Set<String> normalizedTags = filter.normalizedTags();
+        for (String tag : normalizedTags) {
+            specification = specification.and(hasTag(tag));
+        }
+        return specification;
+    }
+
+    public static Specification<Item> hasStatus(final ItemStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Item> fieldContains(final String attribute, final String normalizedValue) {
+        return (root, query, cb) -> likeContains(cb, root.get(attribute), normalizedValue);
+    }
+
+    public static Specification<Item> termContains(final String normalizedTerm) {
+        return (root, query, cb) -> cb.or(
+                likeContains(cb, root.get("title"), normalizedTerm),
+                likeContains(cb, root.get("series"), normalizedTerm),
+                likeContains(cb, root.get("publisher"), normalizedTerm),
+                likeContains(cb, root.get("description"), normalizedTerm),
+                likeContains(cb, root.get("location"), normalizedTerm),
+                likeContains(cb, root.get("language"), normalizedTerm),
+                tagExists(root, query, cb, tag -> likeContains(cb, tag, normalizedTerm)));
+    }
+
+    public static Specification<Item> hasTag(final String normalizedTag) {
+        return (root, query, cb) -> tagExists(root, query, cb, tag -> cb.equal(tag, normalizedTag));
+    }
+
+    /**
+     * Cada id vira um parâmetro da consulta: quem chama limita a lista (blocos de até mil ids).
+     */
+    public static Specification<Item> idIn(final long[] ids) {
+        return (root, query, cb) -> {
+            if (ids.length == 0) {
+                return cb.disjunction();
+            }
+            return root.get("id").in(Arrays.stream(ids).boxed().toList());
+        };
+    }
+
+    /**
+     * Predicado de busca por chave {@code (campo de ordenação, id)}: seleciona os itens posteriores ao
+     * cursor na direção de leitura, o que permite usar o índice em vez de OFFSET.
+     */
+    public static Specification<Item> seek(final ItemCursor cursor) {
+        return (root, query, cb) -> {
+            boolean ascending = cursor.direction().isAscending() != cursor.backward();
+            Path<Long> id = root.get("id");
+            Predicate idPredicate = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+            if (cursor.field() == ItemSortField.ID) {
+                return idPredicate;
+            }
+            Path<String> key = root.get(cursor.field().getAttribute());
+            Predicate keyPredicate = ascending ? cb.greaterThan(key, cursor.key()) : cb.lessThan(key, cursor.key());
+            return cb.or(keyPredicate, cb.and(cb.equal(key, cursor.key()), idPredicate));
+        };
+    }
+
+    private static Predicate tagExists(final Root<Item> root, final CriteriaQuery<?> query, final CriteriaBuilder cb,
+            final Function<Expression<String>, Predicate> tagPredicate) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<Item> tagged = subquery.from(Item.class);
+        Join<Item, String> tag = tagged.join("tags");
+        Expression<String> normalizedTag = cb.lower(cb.trim(tag));
+        subquery.select(tagged.get("id"))
+                .where(cb.equal(tagged.get("id"), root.get("id")), tagPredicate.apply(normalizedTag));
+        return cb.exists(subquery);
+    }
+
+    private static Predicate likeContains(final CriteriaBuilder cb, final Expression<String> expression,
+            final String normalizedValue) {
+        return cb.like(cb.lower(expression), "%" + escapeLike(normalizedValue) + "%", LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(final String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char current = value.charAt(i);
+            if (current == LIKE_ESCAPE || current == '%' || current == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(current);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.model.Item;
+import java.util.function.Consumer;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Leitura sequencial de itens para respostas em streaming, sem materializar o resultado inteiro.
+ */
+public interface ItemStreamRepository {
+
+    /**
+     * Entrega cada item que atende à especificação, em ordem de id, lendo páginas de {@code fetchSize}
+     * linhas. Os itens de cada página ficam na sessão até serem consumidos, para que as tags da página
+     * sejam carregadas em uma única consulta, e são desanexados em seguida: o contexto de persistência não
+     * cresce com o tamanho do resultado. Deve ser chamado dentro de uma transação.
+     */
+    void scrollAll(Specification<Item> specification, int fetchSize, Consumer<Item> action);
+
+    /**
+     * Percorre o catálogo inteiro em ordem de id com as tags já preenchidas, usando duas consultas por
+     * página de {@code fetchSize} itens (colunas e, pela faixa de ids da página, tags) em vez de uma
+     * consulta de tags por item. Os itens entregues não são gerenciados pelo contexto de persistência.
+     */
+    void scrollAllWithTags(int fetchSize, Consumer<Item> action);
+}
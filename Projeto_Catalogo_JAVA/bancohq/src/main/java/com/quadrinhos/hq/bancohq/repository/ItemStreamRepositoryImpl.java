@@ -0,0 +1,130 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
+import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Lê o resultado em páginas por chave ({@code id > último id lido}, {@code LIMIT fetchSize}). Cada página é
+ * lida por completo antes de carregar as tags, de modo que nunca há dois resultados abertos na mesma
+ * conexão (o driver do MySQL em modo streaming só permite um) e a memória fica limitada a uma página, sem
+ * depender de {@code useCursorFetch} na URL.
+ */
+class ItemStreamRepositoryImpl implements ItemStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void scrollAll(final Specification<Item> specification, final int fetchSize,
+            final Consumer<Item> action) {
+        Long lastId = null;
+        int read;
+        do {
+            List<Item> page = nextPage(specification, lastId, fetchSize);
+            read = page.size();
+            if (read > 0) {
+                lastId = page.get(read - 1).getId();
+            }
+            deliver(page, action);
+        } while (read == fetchSize);
+    }
+
+    private List<Item> nextPage(final Specification<Item> specification, final Long lastId, final int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Item> query = cb.createQuery(Item.class);
+        Root<Item> root = query.from(Item.class);
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        if (lastId != null) {
+            predicates.add(cb.greaterThan(root.get("id"), lastId));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * Os itens da página ficam na sessão até serem consumidos, para que as tags da página sejam carregadas
+     * em uma única consulta, e são desanexados em seguida.
+     */
+    private void deliver(final List<Item> page, final Consumer<Item> action) {
+        for (Item item : page) {
+            action.accept(item);
+            entityManager.detach(item);
+        }
+    }
+
+    @Override
+    public void scrollAllWithTags(final int fetchSize, final Consumer<Item> action) {
+        long lastId = Long.MIN_VALUE;
+        List<Object[]> rows;
+        do {
+            rows = entityManager.createQuery(
+                            "select i.id, i.title, i.series, i.issueNumber, i.publisher, i.language, i.condition, "
+                                    + "i.location, i.description, i.imageUrl, i.status, i.version, i.updatedAt, "
+                                    + "i.imagePreview "
+                                    + "from Item i where i.id > :lastId order by i.id",
+                            Object[].class)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(fetchSize)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return;
+            }
+            long firstId = (Long) rows.get(0)[0];
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+            Map<Long, Set<String>> tags = new HashMap<>();
+            entityManager.createQuery(
+                            "select i.id, t from Item i join i.tags t where i.id between :firstId and :lastId",
+                            Object[].class)
+                    .setParameter("firstId", firstId)
+                    .setParameter("lastId", lastId)
+                    .getResultList()
+                    .forEach(tag -> tags.computeIfAbsent((Long) tag[0], ignored -> new HashSet<>())
+                            .add((String) tag[1]));
+            for (Object[] row : rows) {
+                long id = (Long) row[0];
+                action.accept(Item.builder()
+                        .id(id)
+                        .title((String) row[1])
+                        .series((String) row[2])
+                        .issueNumber((String) row[3])
+                        .publisher((String) row[4])
+                        .language((String) row[5])
+                        .condition((String) row[6])
+                        .location((String) row[7])
+                        .description((String) row[8])
+                        .imageUrl((String) row[9])
+                        .status((ItemStatus) row[10])
+                        .version((Long) row[11])
+                        .updatedAt((Instant) row[12])
+                        .imagePreview((ImagePreview) row[13])
+                        .tags(tags.getOrDefault(id, new HashSet<>()))
+                        .build());
+            }
+        } while (rows.size() == fetchSize);
+    }
+}
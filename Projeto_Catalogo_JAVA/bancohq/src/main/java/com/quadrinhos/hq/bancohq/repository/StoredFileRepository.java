@@ -0,0 +1,25 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import com.quadrinhos.hq.bancohq.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * Retorna 0 se o blob ainda não está no manifesto.
+     */
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.referenceCount = f.referenceCount + 1 where f.path = :path")
+    int addReference(@Param("path") String path);
+
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.referenceCount = f.referenceCount - 1 "
+            + "where f.path = :path and f.referenceCount > 0")
+    int removeReference(@Param("path") String path);
+}
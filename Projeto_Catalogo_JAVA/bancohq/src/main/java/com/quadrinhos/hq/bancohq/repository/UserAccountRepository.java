@@ -3,10 +3,20 @@ package com.quadrinhos.hq.bancohq.repository;
 import com.quadrinhos.hq.bancohq.model.UserAccount;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
 
     Optional<UserAccount> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Query("select u.tokenVersion from UserAccount u where u.username = :username")
+    Optional<Integer> findTokenVersionByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("update UserAccount u set u.tokenVersion = u.tokenVersion + 1 where u.username = :username")
+    int incrementTokenVersion(@Param("username") String username);
 }
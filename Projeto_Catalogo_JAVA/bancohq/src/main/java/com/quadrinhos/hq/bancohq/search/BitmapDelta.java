@@ -0,0 +1,51 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+/**
+ * Equivalente de {@link PostingDelta} para os bitmaps: os bitmaps publicados nunca são alterados,
+ * cada chave afetada recebe uma cópia com as mudanças do lote.
+ */
+final class BitmapDelta<K> {
+
+    private final Map<K, Roaring64Bitmap> removals = new HashMap<>();
+    private final Map<K, Roaring64Bitmap> additions = new HashMap<>();
+
+    void remove(final K key, final long id) {
+        removals.computeIfAbsent(key, ignored -> new Roaring64Bitmap()).addLong(id);
+    }
+
+    void add(final K key, final long id) {
+        additions.computeIfAbsent(key, ignored -> new Roaring64Bitmap()).addLong(id);
+    }
+
+    void applyTo(final Map<K, Roaring64Bitmap> target) {
+        removals.forEach((key, removed) -> {
+            Roaring64Bitmap current = target.get(key);
+            if (current != null) {
+                target.put(key, Roaring64Bitmap.andNot(current, removed));
+            }
+        });
+        additions.forEach((key, added) -> {
+            Roaring64Bitmap current = target.get(key);
+            target.put(key, current == null ? added : Roaring64Bitmap.or(current, added));
+        });
+        Set<K> affected = new HashSet<>(removals.keySet());
+        affected.addAll(additions.keySet());
+        for (K key : affected) {
+            Roaring64Bitmap bitmap = target.get(key);
+            if (bitmap == null) {
+                continue;
+            }
+            if (bitmap.isEmpty()) {
+                target.remove(key);
+            } else {
+                bitmap.runOptimize();
+            }
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import com.quadrinhos.hq.bancohq.cache.CatalogVersion;
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse.FacetCount;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.event.ItemChangedEvent;
+import com.quadrinhos.hq.bancohq.event.ItemsImportedEvent;
+import com.quadrinhos.hq.bancohq.mapper.ItemMapper;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice em memória do catálogo: um índice de trigramas sobre todos os campos em que o {@code term} é
+ * procurado (título, série, editora, descrição, localização, idioma e tags), para buscas por trecho
+ * ("aranh", "ano u", "arvel") com a mesma semântica do {@code LIKE} da consulta ao banco, e bitmaps
+ * compactados (Roaring) por status, editora, série e tag para resolver os demais filtros.
+ *
+ * <p>Leitores usam o {@link Snapshot} publicado em um campo volátil e nunca bloqueiam. Escritas são
+ * serializadas: cada lote edita os mapas persistentes ({@link PersistentMap}), que copiam só o caminho das
+ * chaves alteradas, substitui apenas as listas de postagem afetadas e publica o novo snapshot de uma vez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final long IMPORT_COALESCING_MILLIS = 1000;
+    private static final int GRAM = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final CatalogVersion catalogVersion;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private final ScheduledExecutorService reindexExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalogo-index-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private List<ItemResponse> pendingImports = new ArrayList<>();
+    private boolean reindexScheduled;
+
+    private volatile Snapshot snapshot;
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.documents.size();
+    }
+
+    /**
+     * Ids (ordenados) dos itens em que o termo aparece como trecho de algum dos campos pesquisados,
+     * ignorando acentos e maiúsculas. Retorna {@code null} quando o índice não pode responder e a busca
+     * deve recorrer ao banco: antes da primeira carga e para termos com menos de três caracteres.
+     */
+    public long[] searchTerm(final String term) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        return searchTerm(current, term);
+    }
+
+    /**
+     * Resolve o filtro inteiro como interseção de bitmaps, sem carregar nenhuma entidade. Retorna
+     * {@code null} quando o índice não pode responder (ainda não construído ou termo curto demais).
+     */
+    public Roaring64Bitmap resolve(final ItemFilter filter) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        return resolve(current, filter);
+    }
+
+    /**
+     * Contagens por editora, série, status e tag dentro do resultado do filtro, calculadas pela
+     * cardinalidade da interseção de cada bitmap com o resultado. Retorna {@code null} nas mesmas
+     * condições de {@link #resolve(ItemFilter)}.
+     */
+    public ItemFacetsResponse facets(final ItemFilter filter, final int tagLimit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        Roaring64Bitmap matches = resolve(current, filter);
+        if (matches == null) {
+            return null;
+        }
+        ToLongFunction<Roaring64Bitmap> countIn = filter.hasCriteria()
+                ? bitmap -> Roaring64Bitmap.andCardinality(matches, bitmap)
+                : Roaring64Bitmap::getLongCardinality;
+        return ItemFacetsResponse.builder()
+                .total(matches.getLongCardinality())
+                .publishers(countFacets(current.publishers, countIn,
+                        bitmap -> current.documents.get(bitmap.first()).publisher(), Integer.MAX_VALUE))
+                .series(countFacets(current.series, countIn,
+                        bitmap -> current.documents.get(bitmap.first()).series(), Integer.MAX_VALUE))
+                .statuses(countFacets(current.statuses, countIn, null, Integer.MAX_VALUE))
+                .tags(countFacets(current.tags, countIn, null, tagLimit))
+                .build();
+    }
+
+    private static <K> List<FacetCount> countFacets(final Map<K, Roaring64Bitmap> family,
+            final ToLongFunction<Roaring64Bitmap> countIn, final Function<Roaring64Bitmap, String> label,
+            final int limit) {
+        List<FacetCount> counts = new ArrayList<>();
+        family.forEach((key, bitmap) -> {
+            long count = countIn.applyAsLong(bitmap);
+            if (count > 0) {
+                counts.add(new FacetCount(label == null ? key.toString() : label.apply(bitmap), count));
+            }
+        });
+        counts.sort(ItemFacetsResponse.BY_COUNT);
+        return counts.size() > limit ? List.copyOf(counts.subList(0, limit)) : counts;
+    }
+
+    private static Roaring64Bitmap resolve(final Snapshot current, final ItemFilter filter) {
+        List<Roaring64Bitmap> clauses = new ArrayList<>();
+
+        String normalizedTerm = filter.normalizedTerm();
+        if (normalizedTerm != null) {
+            long[] ids = searchTerm(current, normalizedTerm);
+            if (ids == null) {
+                return null;
+            }
+            clauses.add(Roaring64Bitmap.bitmapOf(ids));
+        }
+
+        String normalizedPublisher = filter.normalizedPublisher();
+        if (normalizedPublisher != null) {
+            clauses.add(unionOfKeysContaining(current.publishers, normalizedPublisher));
+        }
+
+        String normalizedSeries = filter.normalizedSeries();
+        if (normalizedSeries != null) {
+            clauses.add(unionOfKeysContaining(current.series, normalizedSeries));
+        }
+
+        if (filter.getStatus() != null) {
+            clauses.add(current.statuses.getOrDefault(filter.getStatus(), new Roaring64Bitmap()));
+        }
+
+        for (String tag : filter.normalizedTags()) {
+            clauses.add(current.tags.getOrDefault(tag, new Roaring64Bitmap()));
+        }
+
+        if (clauses.isEmpty()) {
+            return current.all();
+        }
+        clauses.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+        Roaring64Bitmap result = clauses.get(0).clone();
+        for (int i = 1; i < clauses.size() && !result.isEmpty(); i++) {
+            result.and(clauses.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Estimativa da memória ocupada pelos bitmaps e listas de postagem do snapshot atual.
+     */
+    public IndexFootprint footprint() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return new IndexFootprint(0, 0, 0, 0, 0);
+        }
+        long bitmapBytes = 0;
+        int bitmaps = 0;
+        for (Map<?, Roaring64Bitmap> family : List.of(current.statuses, current.publishers, current.series,
+                current.tags)) {
+            for (Roaring64Bitmap bitmap : family.values()) {
+                bitmapBytes += bitmap.getLongSizeInBytes();
+                bitmaps++;
+            }
+        }
+        long[] postingBytes = {0};
+        current.trigrams.forEach((trigram, postings) -> postingBytes[0] += 16L + postings.length * 8L);
+        return new IndexFootprint(current.documents.size(), current.trigrams.size(),
+                bitmaps, bitmapBytes, postingBytes[0]);
+    }
+
+    /**
+     * Os candidatos vêm da interseção das listas de trigramas e passam por uma verificação final com
+     * {@link String#contains} no texto do item. Um termo mais curto que um trigrama casaria com quase todo o
+     * catálogo e só poderia ser respondido varrendo todos os documentos; o {@code LIKE} do banco, paginado,
+     * para no primeiro bloco de resultados.
+     */
+    private static long[] searchTerm(final Snapshot current, final String term) {
+        String needle = TextAnalyzer.fold(term);
+        if (needle == null || needle.length() < GRAM) {
+            return null;
+        }
+        return current.substring(needle);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            long started = System.nanoTime();
+            Changes changes = new Changes(PersistentMap.<Long, Document>empty().edit());
+            itemRepository.scrollAllWithTags(REBUILD_BATCH_SIZE, item -> changes.index(itemMapper.toResponse(item)));
+            snapshot = changes.applyTo(Snapshot.EMPTY);
+            catalogVersion.increment();
+            log.info("Índice de busca reconstruído: {} itens em {} ms", changes.documents.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void load(final Collection<ItemResponse> items) {
+        writeLock.lock();
+        try {
+            Changes changes = new Changes(PersistentMap.<Long, Document>empty().edit());
+            items.forEach(changes::index);
+            snapshot = changes.applyTo(Snapshot.EMPTY);
+            catalogVersion.increment();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(final ItemChangedEvent event) {
+        apply(event.upserted(), event.deletedIds());
+    }
+
+    /**
+     * Importações confirmam um lote a cada poucas centenas de linhas. Aplicar cada lote na hora
+     * reconstruiria as listas de postagem dos trigramas mais comuns a cada commit, então os lotes
+     * se acumulam por até {@value #IMPORT_COALESCING_MILLIS} ms e uma única thread os aplica de uma vez.
+     */
+    @TransactionalEventListener
+    public void onItemsImported(final ItemsImportedEvent event) {
+        pendingLock.lock();
+        try {
+            pendingImports.addAll(event.items());
+            if (!reindexScheduled) {
+                reindexScheduled = true;
+                reindexExecutor.schedule(this::reindexPending, IMPORT_COALESCING_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void reindexPending() {
+        List<ItemResponse> items;
+        pendingLock.lock();
+        try {
+            items = pendingImports;
+            pendingImports = new ArrayList<>();
+            reindexScheduled = false;
+        } finally {
+            pendingLock.unlock();
+        }
+        try {
+            apply(items, List.of());
+        } catch (RuntimeException exception) {
+            log.error("Falha ao indexar {} itens importados", items.size(), exception);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reindexExecutor.shutdownNow();
+    }
+
+    void apply(final Collection<ItemResponse> upserted, final Collection<Long> deletedIds) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            Changes changes = new Changes(current.documents.edit());
+            for (Long id : deletedIds) {
+                changes.unindex(id);
+            }
+            Map<Long, ItemResponse> latest = new LinkedHashMap<>();
+            upserted.forEach(item -> latest.put(item.getId(), item));
+            for (ItemResponse item : latest.values()) {
+                changes.unindex(item.getId());
+                changes.index(item);
+            }
+            snapshot = changes.applyTo(current);
+            catalogVersion.increment();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Campos pesquisados pelo {@code term}, na forma normalizada e separados por um caractere que nenhum
+     * termo contém, para que um trecho nunca combine o fim de um campo com o início do seguinte.
+     */
+    static String substringTextOf(final ItemResponse item) {
+        StringBuilder text = new StringBuilder();
+        for (String field : new String[] {item.getTitle(), item.getSeries(), item.getPublisher(),
+                item.getDescription(), item.getLocation(), item.getLanguage()}) {
+            appendField(text, field);
+        }
+        if (item.getTags() != null) {
+            for (String tag : item.getTags()) {
+                appendField(text, tag == null ? null : tag.trim());
+            }
+        }
+        return text.toString();
+    }
+
+    private static void appendField(final StringBuilder text, final String field) {
+        if (field != null && !field.isEmpty()) {
+            text.append(TextAnalyzer.fold(field)).append(FIELD_SEPARATOR);
+        }
+    }
+
+    static long[] trigramsOf(final String text) {
+        if (text.length() < GRAM) {
+            return PostingLists.EMPTY;
+        }
+        long[] trigrams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    private static String keyOf(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> tagKeysOf(final ItemResponse item) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (item.getTags() != null) {
+            for (String tag : item.getTags()) {
+                if (tag != null && !tag.isBlank()) {
+                    keys.add(tag.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static Roaring64Bitmap unionOfKeysContaining(final Map<String, Roaring64Bitmap> family,
+            final String normalizedValue) {
+        Roaring64Bitmap union = new Roaring64Bitmap();
+        family.forEach((key, bitmap) -> {
+            if (key.contains(normalizedValue)) {
+                union.or(bitmap);
+            }
+        });
+        return union;
+    }
+
+    public record IndexFootprint(int documents, int postingLists, int bitmaps, long bitmapBytes,
+            long postingBytes) {
+    }
+
+    /**
+     * Dados indexados de um item. Editora e série ficam com a grafia original, usada como rótulo nas
+     * facetas; as chaves dos bitmaps são derivadas com {@link #keyOf(String)}.
+     */
+    private record Document(String text, ItemStatus status, String publisher, String series, String[] tags) {
+    }
+
+    /**
+     * Alterações acumuladas de um lote de escrita (ou de uma reconstrução completa).
+     */
+    private static final class Changes {
+
+        private final PersistentMap.Editor<Long, Document> documents;
+        private final PostingDelta<Long> trigramDelta = new PostingDelta<>();
+        private final BitmapDelta<ItemStatus> statusDelta = new BitmapDelta<>();
+        private final BitmapDelta<String> publisherDelta = new BitmapDelta<>();
+        private final BitmapDelta<String> seriesDelta = new BitmapDelta<>();
+        private final BitmapDelta<String> tagDelta = new BitmapDelta<>();
+
+        private Changes(final PersistentMap.Editor<Long, Document> documents) {
+            this.documents = documents;
+        }
+
+        private void index(final ItemResponse item) {
+            Long id = item.getId();
+            Document document = new Document(substringTextOf(item), item.getStatus(), item.getPublisher(),
+                    item.getSeries(), tagKeysOf(item).toArray(String[]::new));
+            documents.put(id, document);
+            for (long trigram : trigramsOf(document.text())) {
+                trigramDelta.add(trigram, id);
+            }
+            if (document.status() != null) {
+                statusDelta.add(document.status(), id);
+            }
+            if (document.publisher() != null) {
+                publisherDelta.add(keyOf(document.publisher()), id);
+            }
+            if (document.series() != null) {
+                seriesDelta.add(keyOf(document.series()), id);
+            }
+            for (String tag : document.tags()) {
+                tagDelta.add(tag, id);
+            }
+        }
+
+        private void unindex(final Long id) {
+            Document previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (long trigram : trigramsOf(previous.text())) {
+                trigramDelta.remove(trigram, id);
+            }
+            if (previous.status() != null) {
+                statusDelta.remove(previous.status(), id);
+            }
+            if (previous.publisher() != null) {
+                publisherDelta.remove(keyOf(previous.publisher()), id);
+            }
+            if (previous.series() != null) {
+                seriesDelta.remove(keyOf(previous.series()), id);
+            }
+            for (String tag : previous.tags()) {
+                tagDelta.remove(tag, id);
+            }
+        }
+
+        private Snapshot applyTo(final Snapshot base) {
+            PersistentMap.Editor<Long, long[]> trigrams = base.trigrams.edit();
+            trigramDelta.applyTo(trigrams);
+            Map<ItemStatus, Roaring64Bitmap> statuses = new EnumMap<>(ItemStatus.class);
+            statuses.putAll(base.statuses);
+            statusDelta.applyTo(statuses);
+            PersistentMap.Editor<String, Roaring64Bitmap> publishers = base.publishers.edit();
+            publisherDelta.applyTo(publishers);
+            PersistentMap.Editor<String, Roaring64Bitmap> series = base.series.edit();
+            seriesDelta.applyTo(series);
+            PersistentMap.Editor<String, Roaring64Bitmap> tags = base.tags.edit();
+            tagDelta.applyTo(tags);
+            return new Snapshot(trigrams.publish(), documents.publish(), statuses, publishers.publish(),
+                    series.publish(), tags.publish());
+        }
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(PersistentMap.empty(), PersistentMap.empty(), Map.of(),
+                PersistentMap.empty(), PersistentMap.empty(), PersistentMap.empty());
+
+        private final PersistentMap<Long, long[]> trigrams;
+        private final PersistentMap<Long, Document> documents;
+        private final Map<ItemStatus, Roaring64Bitmap> statuses;
+        private final PersistentMap<String, Roaring64Bitmap> publishers;
+        private final PersistentMap<String, Roaring64Bitmap> series;
+        private final PersistentMap<String, Roaring64Bitmap> tags;
+
+        private Snapshot(final PersistentMap<Long, long[]> trigrams, final PersistentMap<Long, Document> documents,
+                final Map<ItemStatus, Roaring64Bitmap> statuses,
+                final PersistentMap<String, Roaring64Bitmap> publishers,
+                final PersistentMap<String, Roaring64Bitmap> series,
+                final PersistentMap<String, Roaring64Bitmap> tags) {
+            this.trigrams = trigrams;
+            this.documents = documents;
+            this.statuses = statuses;
+            this.publishers = publishers;
+            this.series = series;
+            this.tags = tags;
+        }
+
+        private Roaring64Bitmap all() {
+            Roaring64Bitmap all = new Roaring64Bitmap();
+            statuses.values().forEach(all::or);
+            return all;
+        }
+
+        /**
+         * Exige um trecho com ao menos {@link #GRAM} caracteres.
+         */
+        private long[] substring(final String needle) {
+            long[] queryTrigrams = trigramsOf(needle);
+            long[][] postings = new long[queryTrigrams.length][];
+            for (int i = 0; i < queryTrigrams.length; i++) {
+                postings[i] = trigrams.getOrDefault(queryTrigrams[i], PostingLists.EMPTY);
+            }
+            Arrays.sort(postings, (left, right) -> Integer.compare(left.length, right.length));
+            long[] candidates = postings[0];
+            for (int i = 1; i < postings.length && candidates.length > 0; i++) {
+                candidates = PostingLists.intersect(candidates, postings[i]);
+            }
+            long[] verified = new long[candidates.length];
+            int size = 0;
+            for (long id : candidates) {
+                Document document = documents.get(id);
+                if (document != null && document.text().contains(needle)) {
+                    verified[size++] = id;
+                }
+            }
+            return Arrays.copyOf(verified, size);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Mapa imutável em forma de trie de hash (HAMT, 32 filhos por nível) usado pelos snapshots do índice.
+ * Um lote de escrita abre um {@link Editor}, que copia apenas os nós do caminho de cada chave alterada
+ * (O(log32 n) por chave) em vez do mapa inteiro; o snapshot anterior continua válido para os leitores.
+ *
+ * <p>Nós criados por um editor são alterados no lugar enquanto ele estiver aberto; {@link Editor#publish()}
+ * encerra essa posse, de modo que nenhum nó publicado volta a ser alterado. Chaves e valores não podem ser
+ * nulos. O editor não é thread-safe: o índice só o usa sob a trava de escrita.
+ */
+final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object[] NO_ENTRIES = new Object[0];
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    Editor<K, V> edit() {
+        return new Editor<>(root, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        return (V) find(root, key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet<>(root, size);
+    }
+
+    /**
+     * Cópia editável de um {@link PersistentMap}. Implementa {@link Map} para que os deltas do índice
+     * possam gravar nele como em um {@code HashMap}.
+     */
+    static final class Editor<K, V> extends AbstractMap<K, V> {
+
+        private Object owner = new Object();
+        private Node root;
+        private int size;
+
+        private Editor(final Node root, final int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(final Object key) {
+            return (V) find(root, key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V put(final K key, final V value) {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            Result result = new Result();
+            Node base = root == null ? new BitmapNode(owner, 0, NO_ENTRIES) : root;
+            root = base.put(owner, 0, hash(key), key, value, result);
+            if (result.previous == null) {
+                size++;
+            }
+            return (V) result.previous;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V remove(final Object key) {
+            if (key == null || root == null) {
+                return null;
+            }
+            Result result = new Result();
+            root = root.remove(owner, 0, hash(key), key, result);
+            if (result.previous != null) {
+                size--;
+            }
+            return (V) result.previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new EntrySet<>(root, size);
+        }
+
+        /**
+         * Congela o estado atual. O editor continua utilizável, mas as próximas alterações copiam os nós
+         * em vez de alterar os que acabaram de ser publicados.
+         */
+        PersistentMap<K, V> publish() {
+            owner = new Object();
+            return size == 0 ? empty() : new PersistentMap<>(root, size);
+        }
+    }
+
+    /**
+     * Busca iterativa: é o caminho quente das consultas ao índice e, sem recursão, o JIT a compila inteira.
+     */
+    private static Object find(final Node root, final Object key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = hash(key);
+        Node node = root;
+        int shift = 0;
+        while (node instanceof BitmapNode bitmapNode) {
+            int bit = bitOf(hash, shift);
+            if ((bitmapNode.bitmap & bit) == 0) {
+                return null;
+            }
+            int index = 2 * bitmapNode.indexOf(bit);
+            Object[] array = bitmapNode.array;
+            Object storedKey = array[index];
+            if (storedKey != null) {
+                return key.equals(storedKey) ? array[index + 1] : null;
+            }
+            node = (Node) array[index + 1];
+            shift += BITS;
+        }
+        return node == null ? null : node.find(shift, hash, key);
+    }
+
+    /**
+     * Os quatro primeiros níveis consomem os bits 15-19, 10-14, 5-9 e 0-4 do hash, nessa ordem, e só depois
+     * os bits altos. Como {@code Long.hashCode} de um id pequeno é o próprio id, ids vizinhos caem na mesma
+     * folha e a verificação dos candidatos, que percorre os ids em ordem, lê a memória em sequência.
+     */
+    private static int hash(final Object key) {
+        int h = key.hashCode();
+        return (h & 0xFFF00000) | ((h >>> 15) & MASK) | (((h >>> 10) & MASK) << 5) | (((h >>> 5) & MASK) << 10)
+                | ((h & MASK) << 15);
+    }
+
+    private static int bitOf(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static final class Result {
+        private Object previous;
+    }
+
+    private abstract static class Node {
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(Object owner, int shift, int hash, Object key, Object value, Result result);
+
+        /**
+         * Retorna {@code null} quando o nó fica vazio.
+         */
+        abstract Node remove(Object owner, int shift, int hash, Object key, Result result);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Nó com até 32 posições ocupadas, indicadas por {@code bitmap}. Cada posição ocupa dois elementos de
+     * {@code array}: chave e valor, ou {@code null} e o nó filho.
+     */
+    private static final class BitmapNode extends Node {
+
+        private final Object owner;
+        private int bitmap;
+        private Object[] array;
+
+        private BitmapNode(final Object owner, final int bitmap, final Object[] array) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int indexOf(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private BitmapNode editable(final Object editor) {
+            return owner == editor ? this : new BitmapNode(editor, bitmap, array.clone());
+        }
+
+        @Override
+        Object find(final int shift, final int hash, final Object key) {
+            int bit = bitOf(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int index = indexOf(bit);
+            Object storedKey = array[2 * index];
+            Object stored = array[2 * index + 1];
+            if (storedKey == null) {
+                return ((Node) stored).find(shift + BITS, hash, key);
+            }
+            return key.equals(storedKey) ? stored : null;
+        }
+
+        @Override
+        Node put(final Object editor, final int shift, final int hash, final Object key, final Object value,
+                final Result result) {
+            int bit = bitOf(hash, shift);
+            int index = indexOf(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] grown = new Object[array.length + 2];
+                System.arraycopy(array, 0, grown, 0, 2 * index);
+                grown[2 * index] = key;
+                grown[2 * index + 1] = value;
+                System.arraycopy(array, 2 * index, grown, 2 * index + 2, array.length - 2 * index);
+                BitmapNode node = owner == editor ? this : new BitmapNode(editor, bitmap, null);
+                node.bitmap = bitmap | bit;
+                node.array = grown;
+                return node;
+            }
+            Object storedKey = array[2 * index];
+            Object stored = array[2 * index + 1];
+            Object replacement;
+            if (storedKey == null) {
+                replacement = ((Node) stored).put(editor, shift + BITS, hash, key, value, result);
+            } else if (key.equals(storedKey)) {
+                result.previous = stored;
+                replacement = value;
+            } else {
+                replacement = pair(editor, shift + BITS, storedKey, stored, hash, key, value);
+                storedKey = null;
+            }
+            if (replacement == stored) {
+                return this;
+            }
+            BitmapNode node = editable(editor);
+            node.array[2 * index] = storedKey;
+            node.array[2 * index + 1] = replacement;
+            return node;
+        }
+
+        @Override
+        Node remove(final Object editor, final int shift, final int hash, final Object key, final Result result) {
+            int bit = bitOf(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = indexOf(bit);
+            Object storedKey = array[2 * index];
+            Object stored = array[2 * index + 1];
+            if (storedKey == null) {
+                Node child = ((Node) stored).remove(editor, shift + BITS, hash, key, result);
+                if (child == stored) {
+                    return this;
+                }
+                if (child != null) {
+                    BitmapNode node = editable(editor);
+                    node.array[2 * index + 1] = child;
+                    return node;
+                }
+            } else if (key.equals(storedKey)) {
+                result.previous = stored;
+            } else {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] shrunk = new Object[array.length - 2];
+            System.arraycopy(array, 0, shrunk, 0, 2 * index);
+            System.arraycopy(array, 2 * index + 2, shrunk, 2 * index, shrunk.length - 2 * index);
+            BitmapNode node = owner == editor ? this : new BitmapNode(editor, bitmap, null);
+            node.bitmap = bitmap & ~bit;
+            node.array = shrunk;
+            return node;
+        }
+
+        @Override
+        void forEach(final BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        /**
+         * Subárvore com duas chaves que caíram na mesma posição deste nível.
+         */
+        private static Node pair(final Object editor, final int shift, final Object firstKey, final Object firstValue,
+                final int secondHash, final Object secondKey, final Object secondValue) {
+            int firstHash = hash(firstKey);
+            if (firstHash == secondHash) {
+                Object[] entries = {firstKey, firstValue, secondKey, secondValue};
+                return new CollisionNode(editor, firstHash, entries);
+            }
+            Result ignored = new Result();
+            return new BitmapNode(editor, 0, NO_ENTRIES)
+                    .put(editor, shift, firstHash, firstKey, firstValue, ignored)
+                    .put(editor, shift, secondHash, secondKey, secondValue, ignored);
+        }
+    }
+
+    /**
+     * Chaves diferentes com o mesmo hash, guardadas em pares chave/valor.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final Object owner;
+        private final int hash;
+        private Object[] array;
+
+        private CollisionNode(final Object owner, final int hash, final Object[] array) {
+            this.owner = owner;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private CollisionNode withArray(final Object editor, final Object[] entries) {
+            if (owner == editor) {
+                array = entries;
+                return this;
+            }
+            return new CollisionNode(editor, hash, entries);
+        }
+
+        @Override
+        Object find(final int shift, final int keyHash, final Object key) {
+            if (keyHash != hash) {
+                return null;
+            }
+            int index = indexOf(key);
+            return index < 0 ? null : array[index + 1];
+        }
+
+        @Override
+        Node put(final Object editor, final int shift, final int keyHash, final Object key, final Object value,
+                final Result result) {
+            if (keyHash != hash) {
+                return new BitmapNode(editor, bitOf(hash, shift), new Object[] {null, this})
+                        .put(editor, shift, keyHash, key, value, result);
+            }
+            int index = indexOf(key);
+            if (index >= 0) {
+                result.previous = array[index + 1];
+                if (result.previous == value) {
+                    return this;
+                }
+                Object[] entries = owner == editor ? array : array.clone();
+                entries[index + 1] = value;
+                return withArray(editor, entries);
+            }
+            Object[] entries = new Object[array.length + 2];
+            System.arraycopy(array, 0, entries, 0, array.length);
+            entries[array.length] = key;
+            entries[array.length + 1] = value;
+            return withArray(editor, entries);
+        }
+
+        @Override
+        Node remove(final Object editor, final int shift, final int keyHash, final Object key, final Result result) {
+            int index = keyHash == hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            result.previous = array[index + 1];
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] entries = new Object[array.length - 2];
+            System.arraycopy(array, 0, entries, 0, index);
+            System.arraycopy(array, index + 2, entries, index, entries.length - index);
+            return withArray(editor, entries);
+        }
+
+        @Override
+        void forEach(final BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Visão somente leitura; a iteração percorre a árvore uma vez e guarda as entradas.
+     */
+    private static final class EntrySet<K, V> extends AbstractSet<Entry<K, V>> {
+
+        private final Node root;
+        private final int size;
+
+        private EntrySet(final Node root, final int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<Entry<K, V>> iterator() {
+            List<Entry<K, V>> entries = new ArrayList<>(size);
+            if (root != null) {
+                root.forEach((key, value) -> entries.add(new SimpleImmutableEntry<>((K) key, (V) value)));
+            }
+            return Collections.unmodifiableList(entries).iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
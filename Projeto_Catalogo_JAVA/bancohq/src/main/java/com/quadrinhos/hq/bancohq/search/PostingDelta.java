@@ -0,0 +1,54 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Acumula as inclusões e remoções de um lote de escrita para que cada lista de postagem afetada seja
+ * reconstruída uma única vez.
+ */
+final class PostingDelta<K> {
+
+    private final Map<K, Set<Long>> removals = new HashMap<>();
+    private final Map<K, List<Long>> additions = new HashMap<>();
+
+    void remove(final K key, final Long id) {
+        removals.computeIfAbsent(key, ignored -> new HashSet<>()).add(id);
+    }
+
+    void add(final K key, final Long id) {
+        additions.computeIfAbsent(key, ignored -> new ArrayList<>()).add(id);
+    }
+
+    /**
+     * Grava as listas resultantes em {@code target}, uma cópia ou um {@link PersistentMap.Editor} do mapa
+     * publicado. Um id removido e incluído de novo na mesma chave (item atualizado sem mudar aquele trigrama)
+     * já está na lista e não gera cópia; por isso cada id deve aparecer no lote no máximo uma vez.
+     */
+    void applyTo(final Map<K, long[]> target) {
+        Set<K> affected = new HashSet<>(removals.keySet());
+        affected.addAll(additions.keySet());
+        for (K key : affected) {
+            Set<Long> removed = removals.getOrDefault(key, Set.of());
+            List<Long> addedIds = additions.getOrDefault(key, List.of());
+            Set<Long> readded = removed.isEmpty() ? Set.of() : new HashSet<>(addedIds);
+            long[] dropped = removed.stream().filter(id -> !readded.contains(id))
+                    .mapToLong(Long::longValue).sorted().toArray();
+            long[] added = addedIds.stream().filter(id -> !removed.contains(id))
+                    .mapToLong(Long::longValue).sorted().toArray();
+            if (dropped.length == 0 && added.length == 0) {
+                continue;
+            }
+            long[] merged = PostingLists.merge(target.getOrDefault(key, PostingLists.EMPTY), dropped, added);
+            if (merged.length == 0) {
+                target.remove(key);
+            } else {
+                target.put(key, merged);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Operações sobre listas de postagem representadas como {@code long[]} ordenados e sem repetição.
+ */
+final class PostingLists {
+
+    static final long[] EMPTY = new long[0];
+
+    private PostingLists() {
+    }
+
+    static long[] intersect(final long[] left, final long[] right) {
+        long[] smaller = left.length <= right.length ? left : right;
+        long[] larger = smaller == left ? right : left;
+        boolean gallop = larger.length > smaller.length * 8L;
+        long[] result = new long[smaller.length];
+        int size = 0;
+        int j = 0;
+        for (long value : smaller) {
+            if (gallop) {
+                int found = Arrays.binarySearch(larger, j, larger.length, value);
+                j = found >= 0 ? found : -found - 1;
+            } else {
+                while (j < larger.length && larger[j] < value) {
+                    j++;
+                }
+            }
+            if (j >= larger.length) {
+                break;
+            }
+            if (larger[j] == value) {
+                result[size++] = value;
+                j++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    static long[] union(final Collection<long[]> lists) {
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+        if (lists.size() == 1) {
+            return lists.iterator().next();
+        }
+        int total = 0;
+        for (long[] list : lists) {
+            total += list.length;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (long[] list : lists) {
+            System.arraycopy(list, 0, merged, offset, list.length);
+            offset += list.length;
+        }
+        Arrays.sort(merged);
+        return distinct(merged);
+    }
+
+    /**
+     * Aplica remoções e inclusões (ambas ordenadas) a uma lista existente em uma única passada, gerando uma
+     * nova lista (a original não é alterada).
+     */
+    static long[] merge(final long[] current, final long[] removed, final long[] added) {
+        long[] result = new long[current.length + added.length];
+        int i = 0;
+        int j = 0;
+        int r = 0;
+        int size = 0;
+        while (i < current.length || j < added.length) {
+            long next;
+            if (j >= added.length || (i < current.length && current[i] <= added[j])) {
+                next = current[i++];
+                while (r < removed.length && removed[r] < next) {
+                    r++;
+                }
+                if (r < removed.length && removed[r] == next) {
+                    continue;
+                }
+            } else {
+                next = added[j++];
+            }
+            if (size == 0 || result[size - 1] != next) {
+                result[size++] = next;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static long[] distinct(final long[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+}
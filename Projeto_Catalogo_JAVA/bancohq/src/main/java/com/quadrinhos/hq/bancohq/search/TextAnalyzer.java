@@ -0,0 +1,26 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de texto para busca em português: {@link #fold} remove acentos e cedilha ("Coleção" vira
+ * "colecao"), expande indicadores ordinais ("1ª" vira "1a") e passa tudo para minúsculas. Hífens, apóstrofos
+ * e espaços são mantidos.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextAnalyzer() {
+    }
+
+    public static String fold(final String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
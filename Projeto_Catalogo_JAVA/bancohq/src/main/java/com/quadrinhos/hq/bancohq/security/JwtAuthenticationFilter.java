@@ -17,14 +17,25 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+/**
+ * Autentica a requisição a partir das claims do token, verificado uma única vez por
+ * {@link JwtTokenProvider#verifyAndExtract}, sem consultar o banco. Só tokens emitidos antes
+ * de as permissões irem para as claims ainda carregam o usuário pelo {@link UserService}; com a
+ * revogação ligada, a versão do token é conferida no {@link TokenVersionCache}.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     private final JwtTokenProvider tokenProvider;
+    private final TokenVersionCache tokenVersionCache;
     private final UserService userService;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, @Lazy UserService userService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, TokenVersionCache tokenVersionCache,
+            @Lazy UserService userService) {
         this.tokenProvider = tokenProvider;
+        this.tokenVersionCache = tokenVersionCache;
         this.userService = userService;
     }
 
@@ -33,19 +44,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull final FilterChain filterChain) throws ServletException, IOException {
         String jwt = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-            String username = tokenProvider.getUsernameFromJWT(jwt);
-            UserDetails userDetails = userService.loadUserByUsername(username);
-
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        JwtPrincipal principal = tokenProvider.verifyAndExtract(jwt).orElse(null);
+        if (principal != null && tokenVersionCache.isCurrent(principal)) {
+            UsernamePasswordAuthenticationToken authentication = principal.authorities() != null
+                    ? new UsernamePasswordAuthenticationToken(principal, null, principal.authorities())
+                    : legacyAuthentication(principal.username());
+            authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private UsernamePasswordAuthenticationToken legacyAuthentication(final String username) {
+        UserDetails userDetails = userService.loadUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
     private String getJwtFromRequest(final HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
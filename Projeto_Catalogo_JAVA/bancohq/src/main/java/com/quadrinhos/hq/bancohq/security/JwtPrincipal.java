@@ -0,0 +1,18 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import java.security.Principal;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Usuário autenticado montado só com as claims de um token já verificado, sem consulta ao banco.
+ * {@code authorities} é nulo para tokens emitidos antes de as permissões irem para as claims.
+ */
+public record JwtPrincipal(String username, int tokenVersion, List<GrantedAuthority> authorities)
+        implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,35 +1,93 @@
 package com.quadrinhos.hq.bancohq.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.quadrinhos.hq.bancohq.config.JwtProperties;
+import com.quadrinhos.hq.bancohq.model.UserAccount;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Value;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+/**
+ * Emite e verifica os tokens. O parser é imutável e compartilhado entre as requisições, e tokens já
+ * verificados ficam em um cache limitado até expirarem: requisições repetidas com o mesmo token não
+ * recalculam o HMAC nem relêem o JSON das claims.
+ */
 @Component
 public class JwtTokenProvider {
 
-    @Value("${catalogo.security.jwt.secret:change-me}")
-    private String jwtSecret;
+    public static final String VERIFIED_CACHE_NAME = "verified-tokens";
 
-    @Value("${catalogo.security.jwt.expiration:86400000}")
-    private long jwtExpirationInMs;
+    static final String ROLES_CLAIM = "roles";
+    static final String TOKEN_VERSION_CLAIM = "ver";
 
-    private Key signingKey;
+    private final JwtProperties properties;
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    @PostConstruct
-    void init() {
-        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    /**
+     * A chave é o próprio token e a busca compara o texto inteiro, então um token forjado nunca
+     * reaproveita a entrada de outro.
+     */
+    private final Cache<String, Verified> verified;
+
+    public JwtTokenProvider(final JwtProperties properties, final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.signingKey = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        JwtProperties.VerifiedCache config = properties.getVerifiedCache();
+        long ttlNanos = config.getTtl().toNanos();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new Expiry<String, Verified>() {
+                    @Override
+                    public long expireAfterCreate(final String token, final Verified value, final long currentTime) {
+                        long untilExpiration = TimeUnit.MILLISECONDS.toNanos(
+                                value.expiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilExpiration));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(final String token, final Verified value, final long currentTime,
+                            final long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(final String token, final Verified value, final long currentTime,
+                            final long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, VERIFIED_CACHE_NAME);
     }
 
+    /**
+     * As permissões e a versão dos tokens do usuário vão nas claims, para que as requisições seguintes
+     * sejam autenticadas sem consultar o banco.
+     */
     public String generateToken(final Authentication authentication) {
         Object principal = authentication.getPrincipal();
         String username;
@@ -38,36 +96,61 @@ public class JwtTokenProvider {
         } else {
             username = authentication.getName();
         }
+        int tokenVersion = principal instanceof UserAccount account ? account.getTokenVersion() : 0;
 
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+        Date expiryDate = new Date(now.getTime() + properties.getExpiration());
 
         return Jwts.builder()
                 .setSubject(username)
+                .claim(ROLES_CLAIM, authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromJWT(final String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    /**
+     * Verifica assinatura e expiração e extrai o usuário em uma única passada. Retorna vazio para
+     * qualquer token inválido.
+     */
+    public Optional<JwtPrincipal> verifyAndExtract(final String token) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+        Verified cached = verified.getIfPresent(token);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return Optional.of(cached.principal());
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), tokenVersion == null ? 0 : tokenVersion,
+                authoritiesOf(claims.get(ROLES_CLAIM)));
+        if (claims.getExpiration() != null) {
+            verified.put(token, new Verified(principal, claims.getExpiration().getTime()));
+        }
+        return Optional.of(principal);
     }
 
-    public boolean validateToken(final String authToken) {
-        if (!StringUtils.hasText(authToken)) {
-            return false;
+    private static List<GrantedAuthority> authoritiesOf(final Object roles) {
+        if (!(roles instanceof Collection<?> values)) {
+            return null;
         }
-        try {
-            Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(authToken);
-            return true;
-        } catch (Exception ex) {
-            return false;
+        List<GrantedAuthority> authorities = new ArrayList<>(values.size());
+        for (Object value : values) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(value)));
         }
+        return List.copyOf(authorities);
+    }
+
+    private record Verified(JwtPrincipal principal, long expiresAtMillis) {
     }
 }
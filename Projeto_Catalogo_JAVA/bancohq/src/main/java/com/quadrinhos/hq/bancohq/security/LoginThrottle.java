@@ -0,0 +1,114 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quadrinhos.hq.bancohq.config.LoginProperties;
+import com.quadrinhos.hq.bancohq.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limita tentativas de login por usuário e por endereço IP. A tentativa é reservada antes de entrar na
+ * fila do {@link PasswordHashingExecutor}, então uma tentativa bloqueada não custa um BCrypt.
+ * As contagens ficam em memória e são zeradas depois de {@code window} sem novas tentativas.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxFailuresPerUsername;
+    private final int maxAttemptsPerAddress;
+    private final long retryAfterSeconds;
+    private final Cache<String, Integer> usernames;
+    private final Cache<String, Integer> addresses;
+    private final Counter throttledByUsername;
+    private final Counter throttledByAddress;
+
+    public LoginThrottle(final LoginProperties properties, final MeterRegistry meterRegistry) {
+        LoginProperties.Throttle config = properties.getThrottle();
+        this.maxFailuresPerUsername = config.getMaxFailuresPerUsername();
+        this.maxAttemptsPerAddress = config.getMaxAttemptsPerAddress();
+        this.retryAfterSeconds = config.getWindow().toSeconds();
+        this.usernames = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getWindow())
+                .build();
+        this.addresses = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getWindow())
+                .build();
+        this.throttledByUsername = Counter.builder("catalogo.security.login.throttled")
+                .tag("by", "username")
+                .register(meterRegistry);
+        this.throttledByAddress = Counter.builder("catalogo.security.login.throttled")
+                .tag("by", "address")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva a tentativa antes de ela entrar na fila: cada contagem só sobe se ainda estiver abaixo do
+     * limite, de modo que uma rajada de tentativas simultâneas não passa do limite enquanto espera o BCrypt.
+     * Lança {@link TooManyLoginAttemptsException} se o usuário ou o endereço já atingiram o limite.
+     * {@code username} pode ser nulo quando só o endereço deve ser contado.
+     */
+    public void reserve(final String username, final String address) {
+        if (username != null && !tryIncrement(usernames, username, maxFailuresPerUsername)) {
+            throttledByUsername.increment();
+            throw new TooManyLoginAttemptsException(retryAfterSeconds);
+        }
+        if (!tryIncrement(addresses, address, maxAttemptsPerAddress)) {
+            if (username != null) {
+                decrement(usernames, username);
+            }
+            throttledByAddress.increment();
+            throw new TooManyLoginAttemptsException(retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Devolve uma reserva que não chegou a custar um BCrypt, como a recusada por fila cheia.
+     */
+    public void release(final String username, final String address) {
+        if (username != null) {
+            decrement(usernames, username);
+        }
+        decrement(addresses, address);
+    }
+
+    /**
+     * Um login bem-sucedido zera as falhas do usuário e devolve a reserva do endereço; as falhas anteriores
+     * do endereço continuam valendo.
+     */
+    public void succeeded(final String username, final String address) {
+        usernames.invalidate(username);
+        decrement(addresses, address);
+    }
+
+    /**
+     * A leitura prévia evita renovar a janela de quem já está bloqueado; o {@code compute} garante o limite.
+     */
+    private static boolean tryIncrement(final Cache<String, Integer> cache, final String key, final int limit) {
+        if (count(cache, key) >= limit) {
+            return false;
+        }
+        boolean[] reserved = new boolean[1];
+        cache.asMap().compute(key, (ignored, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= limit) {
+                return count;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+
+    private static void decrement(final Cache<String, Integer> cache, final String key) {
+        cache.asMap().computeIfPresent(key, (ignored, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static int count(final Cache<String, Integer> cache, final String key) {
+        Integer count = cache.getIfPresent(key);
+        return count == null ? 0 : count;
+    }
+}
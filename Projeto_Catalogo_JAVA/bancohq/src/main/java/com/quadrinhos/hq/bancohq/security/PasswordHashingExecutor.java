@@ -0,0 +1,82 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import com.quadrinhos.hq.bancohq.config.LoginProperties;
+import com.quadrinhos.hq.bancohq.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executa fora das threads do Tomcat as operações que calculam BCrypt (login e cadastro). O pool e a
+ * fila têm tamanho fixo: numa rajada de logins o excedente é recusado na hora com
+ * {@link LoginCapacityExceededException}, e as threads do Tomcat continuam livres para o catálogo.
+ *
+ * <p>Publica {@code catalogo.security.password.queue} e {@code .active} (tarefas aguardando e em
+ * execução), os tempos {@code .wait} e {@code .hash} e o contador {@code .rejected}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(final LoginProperties properties, final MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getHashingThreads(), properties.getHashingThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getHashingQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "catalogo-password-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("catalogo.security.password.queue", executor, pool -> pool.getQueue().size())
+                .description("Logins e cadastros aguardando uma thread de hash")
+                .register(meterRegistry);
+        Gauge.builder("catalogo.security.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Logins e cadastros calculando hash")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("catalogo.security.password.wait")
+                .description("Tempo na fila até uma thread de hash")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("catalogo.security.password.hash")
+                .description("Tempo de execução de um login ou cadastro, dominado pelo BCrypt")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("catalogo.security.password.rejected")
+                .description("Logins e cadastros recusados por falta de capacidade")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agenda a tarefa ou lança {@link LoginCapacityExceededException} imediatamente se a fila estiver
+     * cheia. Exceções da tarefa completam o future.
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(task);
+            }, executor);
+        } catch (RejectedExecutionException exception) {
+            rejected.increment();
+            throw new LoginCapacityExceededException();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,61 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quadrinhos.hq.bancohq.config.JwtProperties;
+import com.quadrinhos.hq.bancohq.repository.UserAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versão atual dos tokens de cada usuário, consultada quando a revogação está ligada. Guarda apenas o
+ * número da versão por usuário, por pouco tempo, de modo que uma rajada de requisições do mesmo
+ * usuário gera no máximo uma consulta por {@code cache-ttl}.
+ */
+@Component
+public class TokenVersionCache {
+
+    public static final String NAME = "token-versions";
+
+    private static final int MISSING_USER = -1;
+
+    private final boolean enabled;
+    private final Cache<String, Integer> cache;
+    private final UserAccountRepository userAccountRepository;
+
+    public TokenVersionCache(final JwtProperties properties, final UserAccountRepository userAccountRepository,
+            final MeterRegistry meterRegistry) {
+        JwtProperties.Revocation config = properties.getRevocation();
+        this.enabled = config.isEnabled();
+        this.userAccountRepository = userAccountRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfterWrite(config.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Com a revogação desligada todo token verificado é aceito. Um usuário removido nunca tem a versão
+     * atual.
+     */
+    public boolean isCurrent(final JwtPrincipal principal) {
+        if (!enabled) {
+            return true;
+        }
+        int current = cache.get(principal.username(), username -> userAccountRepository
+                .findTokenVersionByUsername(username)
+                .orElse(MISSING_USER));
+        return current == principal.tokenVersion();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void invalidate(final String username) {
+        cache.invalidate(username);
+    }
+}
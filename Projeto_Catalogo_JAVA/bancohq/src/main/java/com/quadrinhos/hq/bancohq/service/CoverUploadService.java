@@ -0,0 +1,44 @@
+package com.quadrinhos.hq.bancohq.service;
+
+import com.quadrinhos.hq.bancohq.dto.CoverUploadRequest;
+import com.quadrinhos.hq.bancohq.dto.CoverUploadResponse;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Envio retomável de capas grandes: o cliente abre uma sessão, envia as partes numeradas em qualquer
+ * ordem (inclusive em paralelo ou de novo, após uma queda) e a conclui ao associá-la a um item. Uma
+ * sessão só é visível para quem a criou; as de outro usuário respondem como inexistentes. Há limites de
+ * envios abertos por usuário e de espaço ocupado por todos os envios; acima deles a criação lança
+ * {@link com.quadrinhos.hq.bancohq.exception.UploadCapacityExceededException}.
+ */
+public interface CoverUploadService {
+
+    CoverUploadResponse create(CoverUploadRequest request, String owner);
+
+    CoverUploadResponse find(String uploadId, String owner);
+
+    /**
+     * Grava a parte {@code index} (a partir de 0). O conteúdo precisa ter exatamente o tamanho da parte;
+     * uma parte reenviada substitui a anterior.
+     */
+    CoverUploadResponse writeChunk(String uploadId, String owner, int index, InputStream content,
+            long contentLength) throws IOException;
+
+    void cancel(String uploadId, String owner);
+
+    /**
+     * Confere o SHA-256 declarado e entrega o arquivo ao {@link FileStorageService}, devolvendo a URL da
+     * capa. A sessão fica com a referência à capa até {@link #confirm(String, String)}: se a gravação do
+     * item falhar, o mesmo envio pode ser usado de novo, e uma sessão cancelada ou expirada devolve a
+     * referência. Com partes faltando lança {@link IllegalArgumentException} e a sessão continua aberta;
+     * com o checksum divergente a sessão é descartada.
+     */
+    String complete(String uploadId, String owner);
+
+    /**
+     * Encerra a sessão concluída depois que o item foi gravado com a capa, que passa a ser dona da
+     * referência. Não faz nada se a sessão não existir mais.
+     */
+    void confirm(String uploadId, String owner);
+}
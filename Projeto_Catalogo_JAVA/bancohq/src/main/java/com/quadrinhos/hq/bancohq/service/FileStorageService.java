@@ -1,10 +1,32 @@
 package com.quadrinhos.hq.bancohq.service;
 
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
+import java.nio.file.Path;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface FileStorageService {
 
     String store(MultipartFile file);
 
+    /**
+     * Armazena um arquivo já montado no disco, como o de um envio em partes, se o SHA-256 do conteúdo for
+     * {@code sha256}; senão lança {@link IllegalArgumentException}. O arquivo é movido, não copiado, e
+     * precisa estar no mesmo sistema de arquivos do armazenamento; se o conteúdo já estiver armazenado ele
+     * continua onde está.
+     */
+    String store(Path file, String originalFilename, String sha256);
+
     void delete(String resourcePath);
+
+    /**
+     * Arquivo de uma URL {@code /files/...} armazenada, ou {@code null} se a URL não for local. O arquivo
+     * pode não existir.
+     */
+    Path locate(String resourcePath);
+
+    /**
+     * Placeholder de uma capa armazenada, ou {@code null} se a URL não for local ou o arquivo não for uma
+     * imagem legível.
+     */
+    ImagePreview describe(String resourcePath);
 }
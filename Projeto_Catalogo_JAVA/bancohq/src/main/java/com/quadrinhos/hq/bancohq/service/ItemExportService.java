@@ -0,0 +1,13 @@
+package com.quadrinhos.hq.bancohq.service;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ItemExportService {
+
+    /**
+     * Grava os itens do filtro como CSV, no formato aceito pela importação, à medida que saem do banco.
+     */
+    void exportCsv(ItemFilter filter, OutputStream output) throws IOException;
+}
@@ -0,0 +1,22 @@
+package com.quadrinhos.hq.bancohq.service;
+
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.Resource;
+
+public interface ItemImportService {
+
+    /**
+     * Copia o arquivo para o disco e agenda a importação. Lança
+     * {@link com.quadrinhos.hq.bancohq.exception.ImportCapacityExceededException} se a fila estiver cheia.
+     */
+    ItemImportJobResponse submit(String fileName, InputStream content, Mode mode) throws IOException;
+
+    ItemImportJobResponse findJob(String jobId);
+
+    ItemImportJobResponse cancel(String jobId);
+
+    Resource rejectedReport(String jobId);
+}
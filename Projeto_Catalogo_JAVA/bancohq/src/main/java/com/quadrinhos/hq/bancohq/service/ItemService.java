@@ -1,11 +1,16 @@
 package com.quadrinhos.hq.bancohq.service;
 
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse;
 import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemPageRequest;
+import com.quadrinhos.hq.bancohq.dto.ItemPageResponse;
 import com.quadrinhos.hq.bancohq.dto.ItemRequest;
 import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
 import com.quadrinhos.hq.bancohq.model.ItemStatus;
-import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -21,7 +26,32 @@ public interface ItemService {
 
     List<ItemResponse> search(ItemFilter filter);
 
-    List<ItemResponse> importFromCsv(InputStream inputStream);
+    /**
+     * Entrega os itens do filtro um a um, em ordem de id, sem montar a lista completa em memória.
+     */
+    void streamSearch(ItemFilter filter, Consumer<ItemResponse> consumer);
+
+    ItemPageResponse searchPage(ItemFilter filter, ItemPageRequest pageRequest);
+
+    ItemFacetsResponse facets(ItemFilter filter, int tagLimit);
+
+    /**
+     * Insere um lote já validado em uma única transação, com INSERTs agrupados. Retorna os ids gerados,
+     * na ordem das requisições.
+     */
+    List<Long> importBatch(List<ItemRequest> requests);
+
+    /**
+     * Sobrescreve os itens indicados (id → novos dados) em uma única transação, com UPDATEs agrupados.
+     * Ids que não existem mais são ignorados; retorna quantos itens foram atualizados.
+     */
+    int updateBatch(Map<Long, ItemRequest> requests);
 
     void delete(Long id);
+
+    /**
+     * Grava os placeholders (URL da capa → placeholder) nos itens com essas capas que ainda não têm um.
+     * Retorna quantos itens foram alterados.
+     */
+    int applyImagePreviews(Map<String, ImagePreview> previews);
 }
@@ -2,9 +2,20 @@ package com.quadrinhos.hq.bancohq.service;
 
 import com.quadrinhos.hq.bancohq.dto.RegisterRequest;
 import com.quadrinhos.hq.bancohq.model.UserAccount;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
-public interface UserService extends UserDetailsService {
+/**
+ * Como {@link UserDetailsPasswordService}, recebe do {@code DaoAuthenticationProvider} a senha recalculada
+ * quando o custo do BCrypt configurado é maior que o do hash gravado.
+ */
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 
     UserAccount register(RegisterRequest request);
+
+    /**
+     * Invalida todos os tokens já emitidos para o usuário. Com {@code catalogo.security.jwt.revocation.enabled}
+     * desligado os tokens não seriam conferidos, então lança {@code TokenRevocationDisabledException}.
+     */
+    void revokeTokens(String username);
 }
@@ -0,0 +1,243 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.config.StorageProperties;
+import com.quadrinhos.hq.bancohq.dto.CoverRenditions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Gera as miniaturas JPEG progressivas de {@link CoverRenditions} num executor próprio: logo após o envio
+ * da capa e, para capas anteriores a este recurso ou que não couberam na fila, no primeiro acesso. A
+ * original é decodificada uma vez e reduzida da maior largura para a menor, cada passo a partir do
+ * anterior.
+ *
+ * <p>Publica {@code catalogo.storage.renditions.queue}, o tempo {@code .generate} e o contador
+ * {@code .rejected}.
+ */
+@Slf4j
+@Service
+public class CoverRenditionService {
+
+    private static final String TEMP_DIRECTORY = ".tmp";
+
+    private final Path rootLocation;
+    private final Path tempLocation;
+    private final float quality;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final Timer generateTimer;
+    private final Counter rejected;
+
+    public CoverRenditionService(final StorageProperties storageProperties, final MeterRegistry meterRegistry) {
+        StorageProperties.Renditions properties = storageProperties.getRenditions();
+        this.rootLocation = Paths.get(storageProperties.getLocation()).toAbsolutePath().normalize();
+        this.tempLocation = rootLocation.resolve(TEMP_DIRECTORY);
+        this.quality = properties.getQuality();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "catalogo-rendition-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("catalogo.storage.renditions.queue", executor, pool -> pool.getQueue().size())
+                .description("Capas aguardando geração de miniaturas")
+                .register(meterRegistry);
+        this.generateTimer = Timer.builder("catalogo.storage.renditions.generate")
+                .description("Tempo para decodificar uma capa e gravar todas as miniaturas")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("catalogo.storage.renditions.rejected")
+                .description("Capas não enfileiradas por falta de capacidade")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agenda a geração das miniaturas de uma capa recém-armazenada, sem esperar. Com a fila cheia a capa
+     * fica para o primeiro acesso.
+     */
+    public void schedule(final String sourceRelativePath) {
+        generateAsync(sourceRelativePath);
+    }
+
+    /**
+     * Arquivo da miniatura, gerado agora se ainda não existir. Completa vazio se a original não existe, não
+     * é uma imagem legível ou a fila está cheia; nesses casos o chamador deve servir a original.
+     */
+    public CompletableFuture<Optional<Path>> obtain(final String sourceRelativePath, final int width) {
+        Path rendition = renditionOf(sourceRelativePath, width);
+        if (Files.exists(rendition)) {
+            return CompletableFuture.completedFuture(Optional.of(rendition));
+        }
+        if (!Files.isRegularFile(rootLocation.resolve(sourceRelativePath))) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return generateAsync(sourceRelativePath)
+                .thenApply(generated -> generated && Files.exists(rendition) ? Optional.of(rendition)
+                        : Optional.<Path>empty());
+    }
+
+    /**
+     * Remove as miniaturas de uma capa apagada.
+     */
+    public void delete(final String sourceRelativePath) {
+        for (int width : CoverRenditions.WIDTHS) {
+            deleteQuietly(renditionOf(sourceRelativePath, width));
+        }
+    }
+
+    private CompletableFuture<Boolean> generateAsync(final String sourceRelativePath) {
+        CompletableFuture<Boolean> running = inFlight.get(sourceRelativePath);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        running = inFlight.putIfAbsent(sourceRelativePath, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(generateTimer.recordCallable(() -> generate(sourceRelativePath)));
+                } catch (Exception | OutOfMemoryError exception) {
+                    log.warn("Falha ao gerar miniaturas de {}", sourceRelativePath, exception);
+                    created.complete(false);
+                } finally {
+                    inFlight.remove(sourceRelativePath, created);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            rejected.increment();
+            inFlight.remove(sourceRelativePath, created);
+            created.complete(false);
+        }
+        return created;
+    }
+
+    private boolean generate(final String sourceRelativePath) throws IOException {
+        Path source = rootLocation.resolve(sourceRelativePath);
+        List<Integer> widths = new ArrayList<>(CoverRenditions.WIDTHS);
+        Collections.reverse(widths);
+        if (widths.stream().allMatch(width -> Files.exists(renditionOf(sourceRelativePath, width)))) {
+            return true;
+        }
+        BufferedImage image = Files.isRegularFile(source) ? ImageIO.read(source.toFile()) : null;
+        if (image == null) {
+            return false;
+        }
+        for (int width : widths) {
+            image = scale(image, width);
+            Path destination = renditionOf(sourceRelativePath, width);
+            if (!Files.exists(destination)) {
+                write(image, destination);
+            }
+        }
+        if (!Files.exists(source)) {
+            // A capa foi apagada durante a geração
+            delete(sourceRelativePath);
+            return false;
+        }
+        return true;
+    }
+
+    private Path renditionOf(final String sourceRelativePath, final int width) {
+        return rootLocation.resolve(CoverRenditions.relativePath(sourceRelativePath, width));
+    }
+
+    /**
+     * Reduz para a largura pedida (sem ampliar), dividindo ao meio enquanto possível: interpolação bilinear
+     * de um passo só perde detalhe em reduções grandes. O fundo branco substitui a transparência, que o JPEG
+     * não tem.
+     */
+    private static BufferedImage scale(final BufferedImage image, final int width) {
+        int targetWidth = Math.min(width, image.getWidth());
+        BufferedImage current = image;
+        do {
+            int stepWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int stepHeight = Math.max(1, Math.round((float) current.getHeight() * stepWidth / current.getWidth()));
+            BufferedImage step = new BufferedImage(stepWidth, stepHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, stepWidth, stepHeight);
+                graphics.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (current.getWidth() > targetWidth);
+        return current;
+    }
+
+    /**
+     * Grava num temporário e move para o destino, para que uma requisição nunca leia um JPEG incompleto.
+     */
+    private void write(final BufferedImage image, final Path destination) throws IOException {
+        Files.createDirectories(destination.getParent());
+        Files.createDirectories(tempLocation);
+        Path temp = Files.createTempFile(tempLocation, "rendition-", ".jpg");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            // Miniatura órfã: será sobrescrita se a capa voltar a ser enviada
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,357 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.config.StorageProperties;
+import com.quadrinhos.hq.bancohq.dto.CoverUploadRequest;
+import com.quadrinhos.hq.bancohq.dto.CoverUploadResponse;
+import com.quadrinhos.hq.bancohq.exception.UploadCapacityExceededException;
+import com.quadrinhos.hq.bancohq.exception.UploadSessionNotFoundException;
+import com.quadrinhos.hq.bancohq.service.CoverUploadService;
+import com.quadrinhos.hq.bancohq.service.FileStorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Monta os envios em partes em {@code <armazenamento>/.tmp/sessions/<id>.part}, no mesmo sistema de
+ * arquivos das capas, para que a conclusão só mova o arquivo. Cada parte é gravada direto na sua posição
+ * com escritas posicionais do {@link FileChannel}, sem montar o arquivo em memória e sem depender da ordem
+ * de chegada. As sessões ficam em memória, como os jobs de importação.
+ *
+ * <p>Uma thread em segundo plano descarta as sessões sem atividade há mais de {@code ttl} e os arquivos
+ * {@code .part} que sobraram de antes de um reinício. Publica {@code catalogo.storage.uploads.sessions} e
+ * o contador {@code .expired}. Os limites de envios por usuário e de espaço pendente são conferidos sob
+ * {@link #admissionLock}, para que criações simultâneas não passem juntas do limite.
+ */
+@Slf4j
+@Service
+public class CoverUploadServiceImpl implements CoverUploadService {
+
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final String SESSIONS_DIRECTORY = "sessions";
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final StorageProperties.Uploads properties;
+    private final Path sessionsLocation;
+    private final Map<String, CoverUploadSession> sessions = new ConcurrentHashMap<>();
+    private final ReentrantLock admissionLock = new ReentrantLock();
+    private final Counter expired;
+    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalogo-upload-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CoverUploadServiceImpl(final FileStorageService fileStorageService,
+            final StorageProperties storageProperties, final MeterRegistry meterRegistry) {
+        this.fileStorageService = fileStorageService;
+        this.properties = storageProperties.getUploads();
+        this.sessionsLocation = Paths.get(storageProperties.getLocation()).toAbsolutePath().normalize()
+                .resolve(TEMP_DIRECTORY).resolve(SESSIONS_DIRECTORY);
+        try {
+            Files.createDirectories(sessionsLocation);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de envios.", exception);
+        }
+        Gauge.builder("catalogo.storage.uploads.sessions", sessions, Map::size)
+                .description("Envios em partes abertos")
+                .register(meterRegistry);
+        this.expired = Counter.builder("catalogo.storage.uploads.expired")
+                .description("Envios em partes descartados por inatividade")
+                .register(meterRegistry);
+        long interval = properties.getCleanupInterval().toMillis();
+        cleanupExecutor.scheduleWithFixedDelay(this::purgeExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CoverUploadResponse create(final CoverUploadRequest request, final String owner) {
+        if (request.getSize() > properties.getMaxSize().toBytes()) {
+            throw new IllegalArgumentException(String.format("O arquivo excede o limite de %d MB",
+                    properties.getMaxSize().toMegabytes()));
+        }
+        String uploadId = UUID.randomUUID().toString();
+        Path partFile = sessionsLocation.resolve(uploadId + PART_SUFFIX);
+        CoverUploadSession session = new CoverUploadSession(uploadId, owner, request.getFileName(),
+                request.getSha256(), request.getSize(), properties.getChunkSize().toBytes(), partFile);
+        admissionLock.lock();
+        try {
+            checkCapacity(owner, request.getSize());
+            Files.createFile(partFile);
+            sessions.put(uploadId, session);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Não foi possível iniciar o envio.", exception);
+        } finally {
+            admissionLock.unlock();
+        }
+        return session.toResponse(properties.getTtl());
+    }
+
+    /**
+     * Sessões já concluídas aguardando a gravação do item não contam espaço: o arquivo já foi para o
+     * armazenamento.
+     */
+    private void checkCapacity(final String owner, final long size) {
+        long owned = 0;
+        long pending = 0;
+        for (CoverUploadSession session : sessions.values()) {
+            if (session.getOwner().equals(owner)) {
+                owned++;
+            }
+            if (session.getImageUrl() == null) {
+                pending += session.getSize();
+            }
+        }
+        if (owned >= properties.getMaxSessionsPerOwner()) {
+            throw new UploadCapacityExceededException(String.format(
+                    "Limite de %d envios abertos por usuário atingido. Conclua ou cancele um envio.",
+                    properties.getMaxSessionsPerOwner()));
+        }
+        if (pending + size > properties.getMaxPendingSize().toBytes()) {
+            throw new UploadCapacityExceededException(
+                    "Há envios demais em andamento. Tente novamente em alguns minutos.");
+        }
+    }
+
+    @Override
+    public CoverUploadResponse find(final String uploadId, final String owner) {
+        return getSession(uploadId, owner).toResponse(properties.getTtl());
+    }
+
+    @Override
+    public CoverUploadResponse writeChunk(final String uploadId, final String owner, final int index,
+            final InputStream content, final long contentLength) throws IOException {
+        CoverUploadSession session = getSession(uploadId, owner);
+        long offset = session.offsetOf(index);
+        long expected = session.lengthOf(index);
+        if (contentLength >= 0 && contentLength != expected) {
+            throw new IllegalArgumentException(String.format("A parte %d deve ter %d bytes", index, expected));
+        }
+        Lock lock = session.getLock().readLock();
+        lock.lock();
+        try {
+            if (session.isClosed()) {
+                throw new UploadSessionNotFoundException(uploadId);
+            }
+            session.touch();
+            session.markReceived(index, false);
+            long written = write(session.getPartFile(), content, offset, expected);
+            if (written != expected) {
+                throw new IllegalArgumentException(String.format("A parte %d deve ter %d bytes", index, expected));
+            }
+            session.markReceived(index, true);
+            session.touch();
+        } finally {
+            lock.unlock();
+        }
+        return session.toResponse(properties.getTtl());
+    }
+
+    @Override
+    public void cancel(final String uploadId, final String owner) {
+        CoverUploadSession session = getSession(uploadId, owner);
+        Lock lock = session.getLock().writeLock();
+        lock.lock();
+        try {
+            if (!session.isClosed()) {
+                releaseCover(session);
+                discard(session);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String complete(final String uploadId, final String owner) {
+        CoverUploadSession session = getSession(uploadId, owner);
+        Lock lock = session.getLock().writeLock();
+        lock.lock();
+        try {
+            if (session.isClosed()) {
+                throw new UploadSessionNotFoundException(uploadId);
+            }
+            session.touch();
+            if (session.getImageUrl() != null) {
+                return session.getImageUrl();
+            }
+            int missing = session.missingChunks();
+            if (missing > 0) {
+                throw new IllegalArgumentException(String.format("Envio %s incompleto: faltam %d de %d partes",
+                        uploadId, missing, session.getChunkCount()));
+            }
+            String imageUrl;
+            try {
+                imageUrl = fileStorageService.store(session.getPartFile(), session.getFileName(),
+                        session.getSha256());
+            } catch (RuntimeException exception) {
+                discard(session);
+                throw exception;
+            }
+            session.completedAs(imageUrl);
+            return imageUrl;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void confirm(final String uploadId, final String owner) {
+        CoverUploadSession session = sessions.get(uploadId);
+        if (session == null || !session.getOwner().equals(owner)) {
+            return;
+        }
+        Lock lock = session.getLock().writeLock();
+        lock.lock();
+        try {
+            discard(session);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleanupExecutor.shutdownNow();
+    }
+
+    /**
+     * Grava o conteúdo a partir de {@code offset} e para de ler um byte depois do esperado, para que um
+     * corpo maior que a parte não avance sobre a seguinte.
+     */
+    private static long write(final Path partFile, final InputStream content, final long offset,
+            final long expected) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.WRITE)) {
+            ReadableByteChannel input = Channels.newChannel(content);
+            while (written <= expected) {
+                buffer.limit((int) Math.min(buffer.capacity(), expected - written + 1));
+                if (input.read(buffer) == -1) {
+                    break;
+                }
+                if (written + buffer.position() > expected) {
+                    return written + buffer.position();
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, offset + written);
+                }
+                buffer.clear();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Descarta as sessões paradas e os arquivos de sessões que não estão mais em memória. Sessões com uma
+     * parte sendo gravada ou concluída no momento ficam para a próxima rodada.
+     */
+    void purgeExpired() {
+        LocalDateTime limit = LocalDateTime.now().minus(properties.getTtl());
+        try {
+            sessions.values().removeIf(session -> {
+                if (session.getLastActivity().isAfter(limit)) {
+                    return false;
+                }
+                Lock lock = session.getLock().writeLock();
+                if (!lock.tryLock()) {
+                    return false;
+                }
+                try {
+                    if (session.isClosed()) {
+                        return true;
+                    }
+                    session.close();
+                    releaseCover(session);
+                    deleteQuietly(session.getPartFile());
+                } finally {
+                    lock.unlock();
+                }
+                expired.increment();
+                log.info("Envio {} de {} expirado com {} partes faltando", session.getId(), session.getOwner(),
+                        session.missingChunks());
+                return true;
+            });
+            deleteOrphanedParts(limit);
+        } catch (RuntimeException exception) {
+            log.warn("Falha ao limpar envios expirados", exception);
+        }
+    }
+
+    private void deleteOrphanedParts(final LocalDateTime limit) {
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(sessionsLocation, "*" + PART_SUFFIX)) {
+            for (Path part : parts) {
+                String name = part.getFileName().toString();
+                String uploadId = name.substring(0, name.length() - PART_SUFFIX.length());
+                LocalDateTime modified = LocalDateTime.ofInstant(Files.getLastModifiedTime(part).toInstant(),
+                        ZoneId.systemDefault());
+                if (!sessions.containsKey(uploadId) && modified.isBefore(limit)) {
+                    deleteQuietly(part);
+                }
+            }
+        } catch (IOException exception) {
+            log.warn("Não foi possível listar {}", sessionsLocation, exception);
+        }
+    }
+
+    /**
+     * Devolve a referência de uma sessão concluída cujo item não chegou a ser gravado.
+     */
+    private void releaseCover(final CoverUploadSession session) {
+        if (session.getImageUrl() != null) {
+            try {
+                fileStorageService.delete(session.getImageUrl());
+            } catch (RuntimeException exception) {
+                log.warn("Não foi possível devolver a capa do envio {}", session.getId(), exception);
+            }
+        }
+    }
+
+    private void discard(final CoverUploadSession session) {
+        session.close();
+        sessions.remove(session.getId());
+        deleteQuietly(session.getPartFile());
+    }
+
+    private CoverUploadSession getSession(final String uploadId, final String owner) {
+        CoverUploadSession session = sessions.get(uploadId);
+        if (session == null || !session.getOwner().equals(owner)) {
+            throw new UploadSessionNotFoundException(uploadId);
+        }
+        return session;
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("Não foi possível remover {}", path, exception);
+        }
+    }
+}
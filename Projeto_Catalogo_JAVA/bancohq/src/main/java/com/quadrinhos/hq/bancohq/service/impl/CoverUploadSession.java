@@ -0,0 +1,116 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.dto.CoverUploadResponse;
+import com.quadrinhos.hq.bancohq.dto.CoverUploadResponse.ChunkRange;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.Getter;
+
+/**
+ * Estado de um envio em partes. As partes são gravadas sob a trava de leitura, de modo que várias podem
+ * chegar ao mesmo tempo; concluir, cancelar e expirar a sessão exigem a trava de escrita e a fecham.
+ */
+@Getter
+class CoverUploadSession {
+
+    private final String id;
+    private final String owner;
+    private final String fileName;
+    private final String sha256;
+    private final long size;
+    private final long chunkSize;
+    private final int chunkCount;
+    private final Path partFile;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Partes gravadas por completo; protegido pelo próprio objeto.
+     */
+    private final BitSet received;
+
+    private volatile LocalDateTime lastActivity = LocalDateTime.now();
+    private volatile boolean closed;
+
+    /**
+     * URL da capa depois da conclusão; a sessão guarda essa referência até o item ser gravado.
+     */
+    private volatile String imageUrl;
+
+    CoverUploadSession(final String id, final String owner, final String fileName, final String sha256,
+            final long size, final long chunkSize, final Path partFile) {
+        this.id = id;
+        this.owner = owner;
+        this.fileName = fileName;
+        this.sha256 = sha256;
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+        this.partFile = partFile;
+        this.received = new BitSet(chunkCount);
+    }
+
+    long offsetOf(final int index) {
+        if (index < 0 || index >= chunkCount) {
+            throw new IllegalArgumentException(String.format("Parte %d inexistente: o envio tem %d partes",
+                    index, chunkCount));
+        }
+        return index * chunkSize;
+    }
+
+    long lengthOf(final int index) {
+        return Math.min(chunkSize, size - offsetOf(index));
+    }
+
+    void touch() {
+        lastActivity = LocalDateTime.now();
+    }
+
+    /**
+     * Chamado sob a trava de escrita.
+     */
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Chamado sob a trava de escrita.
+     */
+    void completedAs(final String url) {
+        imageUrl = url;
+    }
+
+    synchronized void markReceived(final int index, final boolean complete) {
+        received.set(index, complete);
+    }
+
+    synchronized int missingChunks() {
+        return chunkCount - received.cardinality();
+    }
+
+    synchronized CoverUploadResponse toResponse(final Duration ttl) {
+        List<ChunkRange> ranges = new ArrayList<>();
+        long receivedBytes = 0;
+        for (int first = received.nextSetBit(0); first >= 0; first = received.nextSetBit(first)) {
+            int end = received.nextClearBit(first);
+            ranges.add(ChunkRange.builder().first(first).last(end - 1).build());
+            receivedBytes += Math.min(end * chunkSize, size) - first * chunkSize;
+            first = end;
+        }
+        return CoverUploadResponse.builder()
+                .id(id)
+                .fileName(fileName)
+                .size(size)
+                .chunkSize(chunkSize)
+                .chunkCount(chunkCount)
+                .receivedBytes(receivedBytes)
+                .receivedChunks(ranges)
+                .complete(received.cardinality() == chunkCount)
+                .expiresAt(lastActivity.plus(ttl))
+                .build();
+    }
+}
@@ -0,0 +1,495 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.config.ImportProperties;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import com.quadrinhos.hq.bancohq.dto.ItemRequest;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.service.ItemService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.stereotype.Component;
+
+/**
+ * Importa o CSV em três estágios: uma thread lê o arquivo e agrupa as linhas em lotes, um pool de
+ * workers converte e valida cada lote com as mesmas regras da API e a thread do job grava as linhas
+ * válidas em transações de {@code chunkSize} linhas. Um semáforo limita quantos lotes estão entre a
+ * leitura e a gravação, de modo que um banco lento segura a leitura em vez de acumular o arquivo em
+ * memória.
+ *
+ * <p>Linhas inválidas não interrompem o arquivo: vão para o relatório de rejeitadas com o número da
+ * linha e o motivo.
+ */
+@Component
+class CsvItemImporter {
+
+    /**
+     * Colunas lidas por {@link #toRequest(CSVRecord)}; a exportação grava exatamente estas, na mesma ordem.
+     */
+    static final List<String> COLUMNS = List.of("title", "series", "issueNumber", "publisher", "language",
+            "condition", "location", "description", "imageUrl", "status", "tags");
+
+    static final List<String> REQUIRED_COLUMNS = List.of("title", "issueNumber", "publisher");
+
+    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+    private static final long POLL_MILLIS = 200;
+
+    private final ItemService itemService;
+    private final Validator validator;
+    private final ImportProperties properties;
+    private final ExecutorService workers;
+
+    CsvItemImporter(final ItemService itemService, final Validator validator, final ImportProperties properties) {
+        this.itemService = itemService;
+        this.validator = validator;
+        this.properties = properties;
+        if (properties.getWorkers() > 0) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(properties.getWorkers(), runnable -> {
+                Thread thread = new Thread(runnable, "catalogo-import-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.workers = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    void importCsv(final ItemImportJob job, final InputStream input, final Writer rejectedOutput,
+            final int chunkSize) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new CountingInputStream(input, job.getBytesRead()), StandardCharsets.UTF_8));
+                CSVParser parser = CSV_FORMAT.parse(reader)) {
+            List<String> headers = parser.getHeaderNames();
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !headers.contains(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Colunas obrigatórias ausentes no CSV: " + missing);
+            }
+
+            List<String> reportHeader = new ArrayList<>(List.of("line", "error"));
+            reportHeader.addAll(headers);
+            CSVPrinter rejected = CSVFormat.DEFAULT.builder()
+                    .setHeader(reportHeader.toArray(String[]::new))
+                    .build()
+                    .print(rejectedOutput);
+
+            NaturalKeyIndex index = job.getMode() == Mode.UPSERT ? loadNaturalKeys() : null;
+            BatchWriter writer = new BatchWriter(job, rejected, chunkSize, index);
+            if (workers == null) {
+                importSequentially(job, parser, writer);
+            } else {
+                importInParallel(job, parser, writer);
+            }
+            if (!job.isCancelRequested()) {
+                writer.flush();
+            }
+            rejected.flush();
+        }
+    }
+
+    /**
+     * Carrega chave natural, id e impressão digital de todo o catálogo antes da leitura, para que o
+     * upsert não precise consultar o banco a cada linha.
+     */
+    private NaturalKeyIndex loadNaturalKeys() {
+        NaturalKeyIndex index = new NaturalKeyIndex();
+        itemService.streamSearch(ItemFilter.builder().build(), index::put);
+        return index;
+    }
+
+    private void importSequentially(final ItemImportJob job, final CSVParser parser, final BatchWriter writer)
+            throws IOException {
+        long sequence = 0;
+        List<CSVRecord> batch = new ArrayList<>(properties.getParseBatchSize());
+        for (CSVRecord record : parser) {
+            if (job.isCancelRequested()) {
+                return;
+            }
+            job.getParsed().incrementAndGet();
+            batch.add(record);
+            if (batch.size() == properties.getParseBatchSize()) {
+                writer.write(process(sequence++, batch));
+                batch = new ArrayList<>(properties.getParseBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            writer.write(process(sequence, batch));
+        }
+    }
+
+    private void importInParallel(final ItemImportJob job, final CSVParser parser, final BatchWriter writer)
+            throws IOException {
+        BlockingQueue<Outcome> results = new LinkedBlockingQueue<>();
+        Semaphore inFlight = new Semaphore(properties.getMaxInFlightBatches());
+        Thread reader = new Thread(() -> read(job, parser, inFlight, results), "catalogo-import-reader-" + job.getId());
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            Map<Long, Outcome> pending = new HashMap<>();
+            long nextSequence = 0;
+            long written = 0;
+            long totalBatches = -1;
+            while ((totalBatches < 0 || written < totalBatches) && !job.isCancelRequested()) {
+                Outcome outcome = results.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (outcome == null) {
+                    continue;
+                }
+                if (outcome.failure() != null) {
+                    throw outcome.failure();
+                }
+                if (outcome.end()) {
+                    totalBatches = outcome.sequence();
+                    continue;
+                }
+                if (!properties.isPreserveOrder()) {
+                    writer.write(outcome);
+                    inFlight.release();
+                    written++;
+                    continue;
+                }
+                pending.put(outcome.sequence(), outcome);
+                for (Outcome next = pending.remove(nextSequence); next != null;
+                        next = pending.remove(nextSequence)) {
+                    writer.write(next);
+                    inFlight.release();
+                    nextSequence++;
+                    written++;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importação interrompida.");
+        } finally {
+            reader.interrupt();
+            try {
+                reader.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Estágio de leitura: o {@link CSVParser} não é thread-safe, então só esta thread o percorre. Ao
+     * terminar (ou ao perceber o cancelamento) informa quantos lotes foram entregues.
+     */
+    private void read(final ItemImportJob job, final CSVParser parser, final Semaphore inFlight,
+            final BlockingQueue<Outcome> results) {
+        long sequence = 0;
+        try {
+            List<CSVRecord> batch = new ArrayList<>(properties.getParseBatchSize());
+            for (CSVRecord record : parser) {
+                if (job.isCancelRequested() || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                job.getParsed().incrementAndGet();
+                batch.add(record);
+                if (batch.size() == properties.getParseBatchSize()) {
+                    submit(sequence++, batch, inFlight, results);
+                    batch = new ArrayList<>(properties.getParseBatchSize());
+                }
+            }
+            if (!batch.isEmpty() && !job.isCancelRequested()) {
+                submit(sequence++, batch, inFlight, results);
+            }
+            results.add(Outcome.end(sequence));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException exception) {
+            results.add(Outcome.failed(exception));
+        }
+    }
+
+    private void submit(final long sequence, final List<CSVRecord> batch, final Semaphore inFlight,
+            final BlockingQueue<Outcome> results) throws InterruptedException {
+        inFlight.acquire();
+        workers.execute(() -> {
+            Outcome outcome;
+            try {
+                outcome = process(sequence, batch);
+            } catch (RuntimeException exception) {
+                outcome = Outcome.failed(exception);
+            }
+            results.add(outcome);
+        });
+    }
+
+    /**
+     * Estágio dos workers: converte cada linha em {@link ItemRequest} e aplica a Bean Validation.
+     */
+    private Outcome process(final long sequence, final List<CSVRecord> records) {
+        List<ItemRequest> valid = new ArrayList<>(records.size());
+        List<Rejection> rejections = new ArrayList<>();
+        for (CSVRecord record : records) {
+            String error;
+            try {
+                ItemRequest request = toRequest(record);
+                error = describe(validator.validate(request));
+                if (error == null) {
+                    valid.add(request);
+                }
+            } catch (IllegalArgumentException exception) {
+                error = exception.getMessage();
+            }
+            if (error != null) {
+                rejections.add(new Rejection(record, error));
+            }
+        }
+        return new Outcome(sequence, valid, rejections, null, false);
+    }
+
+    private static String describe(final Set<ConstraintViolation<ItemRequest>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    static ItemRequest toRequest(final CSVRecord record) {
+        ItemRequest request = new ItemRequest();
+        request.setTitle(record.get("title"));
+        request.setSeries(getOptional(record, "series"));
+        request.setIssueNumber(record.get("issueNumber"));
+        request.setPublisher(record.get("publisher"));
+        request.setLanguage(getOptional(record, "language"));
+        request.setCondition(getOptional(record, "condition"));
+        request.setLocation(getOptional(record, "location"));
+        request.setDescription(getOptional(record, "description"));
+        request.setImageUrl(getOptional(record, "imageUrl"));
+        request.setStatus(ItemStatus.fromString(getOptional(record, "status")));
+        request.setTags(parseTags(getOptional(record, "tags")));
+        return request;
+    }
+
+    private static String getOptional(final CSVRecord record, final String column) {
+        if (!record.isMapped(column) || !record.isSet(column) || record.get(column) == null) {
+            return null;
+        }
+        String value = record.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Set<String> parseTags(final String columnValue) {
+        if (columnValue == null || columnValue.isBlank()) {
+            return Set.of();
+        }
+        String[] parts = columnValue.split(",");
+        Set<String> tags = new LinkedHashSet<>();
+        for (String part : parts) {
+            String cleaned = part.trim();
+            if (!cleaned.isEmpty()) {
+                tags.add(cleaned);
+            }
+        }
+        return tags;
+    }
+
+    private record Rejection(CSVRecord record, String error) {
+    }
+
+    /**
+     * Resultado de um lote processado, uma falha de leitura/validação ou o marcador de fim (cuja
+     * {@code sequence} é o total de lotes lidos).
+     */
+    private record Outcome(long sequence, List<ItemRequest> valid, List<Rejection> rejections,
+            RuntimeException failure, boolean end) {
+
+        private static Outcome end(final long batches) {
+            return new Outcome(batches, List.of(), List.of(), null, true);
+        }
+
+        private static Outcome failed(final RuntimeException failure) {
+            return new Outcome(-1, List.of(), List.of(), failure, false);
+        }
+    }
+
+    /**
+     * Estágio de gravação: acumula linhas válidas até completar uma transação e registra as rejeitadas.
+     * No modo upsert, cada linha é classificada pelo {@link NaturalKeyIndex}: chave nova vai para o lote
+     * de inserção, chave existente com conteúdo diferente vai para o lote de atualização e linha idêntica
+     * ao banco é apenas contada.
+     */
+    private final class BatchWriter {
+
+        private final ItemImportJob job;
+        private final CSVPrinter rejected;
+        private final int chunkSize;
+        private final NaturalKeyIndex index;
+        private final List<ItemRequest> inserts;
+        private final long[] insertKeys;
+        private final Map<Long, ItemRequest> updates;
+
+        private BatchWriter(final ItemImportJob job, final CSVPrinter rejected, final int chunkSize,
+                final NaturalKeyIndex index) {
+            this.job = job;
+            this.rejected = rejected;
+            this.chunkSize = chunkSize;
+            this.index = index;
+            this.inserts = new ArrayList<>(chunkSize);
+            this.insertKeys = new long[chunkSize];
+            this.updates = new LinkedHashMap<>();
+        }
+
+        private void write(final Outcome outcome) throws IOException {
+            for (Rejection rejection : outcome.rejections()) {
+                List<String> row = new ArrayList<>();
+                row.add(String.valueOf(rejection.record().getRecordNumber() + 1));
+                row.add(rejection.error());
+                row.addAll(rejection.record().toList());
+                rejected.printRecord(row);
+                job.getRejected().incrementAndGet();
+            }
+            for (ItemRequest request : outcome.valid()) {
+                if (index == null) {
+                    insert(request, 0L);
+                } else {
+                    upsert(request);
+                }
+            }
+        }
+
+        private void upsert(final ItemRequest request) throws IOException {
+            long key = NaturalKeyIndex.keyOf(request);
+            long fingerprint = NaturalKeyIndex.fingerprintOf(request);
+            int slot = index.find(key);
+            if (slot < 0) {
+                index.put(key, NaturalKeyIndex.PENDING_ID, fingerprint);
+                insert(request, key);
+                return;
+            }
+            if (index.fingerprintAt(slot) == fingerprint) {
+                job.getSkipped().incrementAndGet();
+                return;
+            }
+            if (index.idAt(slot) == NaturalKeyIndex.PENDING_ID) {
+                // a mesma chave apareceu de novo no arquivo antes de a primeira linha ser gravada
+                flushInserts();
+                slot = index.find(key);
+            }
+            long id = index.idAt(slot);
+            if (updates.containsKey(id)) {
+                flushUpdates();
+            }
+            updates.put(id, request);
+            index.put(key, id, fingerprint);
+            if (updates.size() == chunkSize) {
+                flushUpdates();
+            }
+        }
+
+        private void insert(final ItemRequest request, final long key) throws IOException {
+            insertKeys[inserts.size()] = key;
+            inserts.add(request);
+            if (inserts.size() == chunkSize) {
+                flushInserts();
+            }
+        }
+
+        private void flush() throws IOException {
+            flushInserts();
+            flushUpdates();
+        }
+
+        private void flushInserts() throws IOException {
+            if (inserts.isEmpty()) {
+                return;
+            }
+            List<Long> ids = itemService.importBatch(inserts);
+            if (index != null) {
+                for (int i = 0; i < ids.size(); i++) {
+                    int slot = index.find(insertKeys[i]);
+                    index.put(insertKeys[i], ids.get(i), index.fingerprintAt(slot));
+                }
+            }
+            job.getInserted().addAndGet(ids.size());
+            inserts.clear();
+            rejected.flush();
+        }
+
+        private void flushUpdates() throws IOException {
+            if (updates.isEmpty()) {
+                return;
+            }
+            job.getUpdated().addAndGet(itemService.updateBatch(updates));
+            updates.clear();
+            rejected.flush();
+        }
+    }
+
+    /**
+     * Conta os bytes já lidos do arquivo, usados para estimar o tempo restante.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong counter;
+
+        private CountingInputStream(final InputStream input, final AtomicLong counter) {
+            super(input);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                counter.incrementAndGet();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                counter.addAndGet(count);
+            }
+            return count;
+        }
+    }
+}
@@ -1,32 +1,83 @@
 package com.quadrinhos.hq.bancohq.service.impl;
 
 import com.quadrinhos.hq.bancohq.config.StorageProperties;
+import com.quadrinhos.hq.bancohq.dto.CoverRenditions;
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
+import com.quadrinhos.hq.bancohq.model.StoredFile;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import com.quadrinhos.hq.bancohq.repository.StoredFileRepository;
 import com.quadrinhos.hq.bancohq.service.FileStorageService;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+/**
+ * Armazena as capas pelo SHA-256 do conteúdo, em {@code <aa>/<bb>/<sha256>.<ext>}: a mesma capa enviada
+ * para várias edições ocupa um único arquivo, e os dois níveis de prefixo mantêm cada diretório pequeno
+ * mesmo com milhões de arquivos. O manifesto ({@link StoredFile}) conta os envios de cada blob.
+ *
+ * <p>Um blob só é apagado quando a última referência é removida e nenhum {@code Item.imageUrl} aponta
+ * para ele; a verificação no banco cobre itens que receberam a URL sem envio, como na importação de CSV.
+ * URLs antigas ({@code /files/<uuid>.ext}, na raiz) continuam servidas e seguem a mesma verificação.
+ * As miniaturas de cada capa ({@link CoverRenditionService}) são agendadas no envio e apagadas com ela, assim
+ * como a variante gzip de arquivos de texto.
+ */
 @Service
 @RequiredArgsConstructor
 public class FileSystemStorageService implements FileStorageService {
 
+    private static final String URL_PREFIX = "/files/";
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final int LOCK_STRIPES = 64;
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int MIN_COMPRESSION_SAVING_PERCENT = 10;
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of(".svg", ".json", ".xml", ".txt", ".csv");
+
     private final StorageProperties storageProperties;
+    private final StoredFileRepository storedFileRepository;
+    private final ItemRepository itemRepository;
+    private final CoverRenditionService coverRenditionService;
+
+    /**
+     * Serializa envio e remoção do mesmo blob nesta instância, para que uma remoção não apague um arquivo
+     * que acabou de ganhar uma referência.
+     */
+    private final ReentrantLock[] locks = createLocks();
 
     private Path rootLocation;
+    private Path tempLocation;
+    private Path renditionsLocation;
 
     @PostConstruct
     void init() {
         this.rootLocation = Paths.get(storageProperties.getLocation()).toAbsolutePath().normalize();
+        this.tempLocation = rootLocation.resolve(TEMP_DIRECTORY);
+        this.renditionsLocation = rootLocation.resolve(CoverRenditions.DIRECTORY);
         try {
-            Files.createDirectories(rootLocation);
+            Files.createDirectories(tempLocation);
         } catch (IOException ex) {
             throw new IllegalStateException("Não foi possível criar o diretório de armazenamento", ex);
         }
@@ -41,33 +92,211 @@ public class FileSystemStorageService implements FileStorageService {
         if (originalFilename == null) {
             throw new IllegalArgumentException("Nome do arquivo não pode ser nulo");
         }
-        originalFilename = StringUtils.cleanPath(originalFilename);
-        String extension = "";
-        int extIndex = originalFilename.lastIndexOf('.');
-        if (extIndex >= 0) {
-            extension = originalFilename.substring(extIndex);
+        String extension = extensionOf(StringUtils.cleanPath(originalFilename));
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tempLocation, "upload-", extension);
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return commit(temp, HexFormat.of().formatHex(digest.digest()), extension);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Falha ao salvar arquivo de imagem", ex);
+        } finally {
+            deleteQuietly(temp);
         }
-        String filename = UUID.randomUUID() + extension;
-        Path destination = rootLocation.resolve(filename);
+    }
+
+    @Override
+    public String store(final Path file, final String originalFilename, final String sha256) {
+        String extension = extensionOf(StringUtils.cleanPath(originalFilename));
         try {
-            Files.copy(file.getInputStream(), destination, StandardCopyOption.REPLACE_EXISTING);
+            String hash = HexFormat.of().formatHex(digestOf(file));
+            if (!hash.equalsIgnoreCase(sha256)) {
+                throw new IllegalArgumentException("O SHA-256 do arquivo recebido não confere com o informado");
+            }
+            return commit(file, hash, extension);
         } catch (IOException ex) {
             throw new IllegalStateException("Falha ao salvar arquivo de imagem", ex);
         }
-        return "/files/" + filename;
     }
 
     @Override
     public void delete(final String resourcePath) {
-        if (!StringUtils.hasText(resourcePath) || !resourcePath.startsWith("/files/")) {
+        Path destination = locate(resourcePath);
+        if (destination == null) {
             return;
         }
-        String filename = resourcePath.substring("/files/".length());
-        Path destination = rootLocation.resolve(filename);
+        String relativePath = resourcePath.substring(URL_PREFIX.length());
+        ReentrantLock lock = lockFor(relativePath);
+        lock.lock();
         try {
+            Optional<StoredFile> stored = storedFileRepository.findById(relativePath);
+            if (stored.isPresent() && stored.get().getReferenceCount() > 1) {
+                storedFileRepository.removeReference(relativePath);
+                return;
+            }
+            if (itemRepository.existsByImageUrl(resourcePath)) {
+                stored.ifPresent(ignored -> storedFileRepository.removeReference(relativePath));
+                return;
+            }
+            stored.ifPresent(storedFileRepository::delete);
             Files.deleteIfExists(destination);
+            Files.deleteIfExists(compressedVariantOf(destination));
+            coverRenditionService.delete(relativePath);
         } catch (IOException ex) {
             // Ignorar falha de exclusão para evitar bloquear a operação principal
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ImagePreview describe(final String resourcePath) {
+        Path file = locate(resourcePath);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return ImagePreviews.read(file);
+        } catch (IOException | RuntimeException ex) {
+            // Formato não suportado pelo ImageIO (ex.: JPEG CMYK): o card fica sem placeholder
+            return null;
+        }
+    }
+
+    /**
+     * Também devolve {@code null} para caminhos fora do armazenamento, no diretório temporário ou de
+     * miniaturas.
+     */
+    @Override
+    public Path locate(final String resourcePath) {
+        if (!StringUtils.hasText(resourcePath) || !resourcePath.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        Path file = rootLocation.resolve(resourcePath.substring(URL_PREFIX.length())).normalize();
+        if (!file.startsWith(rootLocation) || file.startsWith(tempLocation) || file.startsWith(renditionsLocation)) {
+            return null;
+        }
+        return file;
+    }
+
+    private String commit(final Path temp, final String hash, final String extension) throws IOException {
+        String relativePath = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+        commit(temp, relativePath);
+        coverRenditionService.schedule(relativePath);
+        return URL_PREFIX + relativePath;
+    }
+
+    /**
+     * Move o arquivo temporário para o endereço do conteúdo ou, se o blob já existe, só soma uma
+     * referência.
+     */
+    private void commit(final Path temp, final String relativePath) throws IOException {
+        ReentrantLock lock = lockFor(relativePath);
+        lock.lock();
+        try {
+            Path destination = rootLocation.resolve(relativePath);
+            if (storedFileRepository.addReference(relativePath) > 0 && Files.exists(destination)) {
+                return;
+            }
+            Files.createDirectories(destination.getParent());
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            precompress(destination);
+            if (!storedFileRepository.existsById(relativePath)) {
+                storedFileRepository.save(StoredFile.builder()
+                        .path(relativePath)
+                        .size(Files.size(destination))
+                        .referenceCount(1)
+                        .createdAt(Instant.now())
+                        .build());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava {@code <arquivo>.gz} ao lado de formatos de texto (SVG, JSON, XML...) quando a compressão
+     * economiza ao menos {@value #MIN_COMPRESSION_SAVING_PERCENT}%; o arquivo é servido já comprimido a quem
+     * aceita gzip. Imagens raster já são comprimidas e não ganham variante.
+     */
+    private void precompress(final Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (!COMPRESSIBLE_EXTENSIONS.contains(extensionOf(name))) {
+            return;
+        }
+        Path temp = Files.createTempFile(tempLocation, "gzip-", GZIP_SUFFIX);
+        try {
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                Files.copy(file, output);
+            }
+            if (Files.size(temp) * 100 <= Files.size(file) * (100 - MIN_COMPRESSION_SAVING_PERCENT)) {
+                Files.move(temp, compressedVariantOf(file), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private static Path compressedVariantOf(final Path file) {
+        return file.resolveSibling(file.getFileName() + GZIP_SUFFIX);
+    }
+
+    private ReentrantLock lockFor(final String relativePath) {
+        return locks[Math.floorMod(relativePath.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    /**
+     * Extensão em minúsculas, para que "CAPA.JPG" e "capa.jpg" com o mesmo conteúdo sejam o mesmo blob.
+     */
+    private static String extensionOf(final String filename) {
+        int extIndex = filename.lastIndexOf('.');
+        if (extIndex < 0 || filename.indexOf('/', extIndex) >= 0) {
+            return "";
+        }
+        return filename.substring(extIndex).toLowerCase(Locale.ROOT);
+    }
+
+    private static byte[] digestOf(final Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex);
+        }
+    }
+
+    private static void deleteQuietly(final Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            // O arquivo temporário já foi movido ou será recriado com outro nome
         }
     }
 }
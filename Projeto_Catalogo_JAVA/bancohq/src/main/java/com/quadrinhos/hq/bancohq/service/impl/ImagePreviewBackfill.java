@@ -0,0 +1,154 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.config.StorageProperties;
+import com.quadrinhos.hq.bancohq.dto.ImagePreviewBackfillResponse;
+import com.quadrinhos.hq.bancohq.dto.ImagePreviewBackfillResponse.Status;
+import com.quadrinhos.hq.bancohq.exception.ImagePreviewBackfillNotFoundException;
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import com.quadrinhos.hq.bancohq.service.FileStorageService;
+import com.quadrinhos.hq.bancohq.service.ItemService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+/**
+ * Preenche o {@link ImagePreview} dos itens cujas capas foram enviadas antes do cálculo no upload. Percorre
+ * as URLs distintas em ordem, em rodadas: as capas de cada rodada são lidas em paralelo e os itens
+ * gravados numa transação, que publica os itens alterados para os caches e o índice. Cada capa é lida uma
+ * vez, mesmo que várias edições a usem.
+ *
+ * <p>Roda em segundo plano e é acompanhado pelo id, como os jobs de importação; só uma execução por vez:
+ * um segundo pedido durante a execução recebe a mesma. Só a última execução fica disponível para consulta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImagePreviewBackfill {
+
+    private final ItemRepository itemRepository;
+    private final ItemService itemService;
+    private final FileStorageService fileStorageService;
+    private final StorageProperties storageProperties;
+
+    private volatile Job current;
+
+    public synchronized ImagePreviewBackfillResponse start() {
+        Job job = current;
+        if (job == null || job.status != Status.RUNNING) {
+            Job started = new Job(UUID.randomUUID().toString());
+            current = started;
+            Thread.ofPlatform().name("catalogo-preview-backfill").start(() -> execute(started));
+            job = started;
+        }
+        return job.toResponse();
+    }
+
+    public ImagePreviewBackfillResponse find(final String jobId) {
+        Job job = current;
+        if (job == null || !job.id.equals(jobId)) {
+            throw new ImagePreviewBackfillNotFoundException(jobId);
+        }
+        return job.toResponse();
+    }
+
+    private void execute(final Job job) {
+        try {
+            run(job);
+            job.finish(Status.COMPLETED, null);
+            log.info("Placeholders de capa preenchidos: {} capas, {} itens, {} ilegíveis em {} ms",
+                    job.images.get(), job.itemsUpdated.get(), job.unreadable.get(), job.elapsedMillis());
+        } catch (RuntimeException exception) {
+            log.warn("Preenchimento de placeholders de capa falhou", exception);
+            job.finish(Status.FAILED, exception.getMessage());
+        }
+    }
+
+    private void run(final Job job) {
+        StorageProperties.Previews properties = storageProperties.getPreviews();
+        ExecutorService readers = Executors.newFixedThreadPool(properties.getBackfillThreads(),
+                Thread.ofPlatform().name("catalogo-preview-", 1).daemon().factory());
+        try {
+            String after = "";
+            List<String> urls;
+            while (!(urls = itemRepository.findImageUrlsWithoutPreview(after,
+                    Limit.of(properties.getBackfillBatchSize()))).isEmpty()) {
+                after = urls.get(urls.size() - 1);
+                List<CompletableFuture<ImagePreview>> reads = new ArrayList<>(urls.size());
+                for (String url : urls) {
+                    reads.add(CompletableFuture.supplyAsync(() -> fileStorageService.describe(url), readers));
+                }
+                Map<String, ImagePreview> previews = new HashMap<>();
+                for (int i = 0; i < urls.size(); i++) {
+                    ImagePreview preview = reads.get(i).join();
+                    if (preview == null) {
+                        job.unreadable.incrementAndGet();
+                    } else {
+                        previews.put(urls.get(i), preview);
+                    }
+                }
+                job.images.addAndGet(urls.size());
+                job.itemsUpdated.addAndGet(itemService.applyImagePreviews(previews));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final long startedNanos = System.nanoTime();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong images = new AtomicLong();
+        private final AtomicLong itemsUpdated = new AtomicLong();
+        private final AtomicLong unreadable = new AtomicLong();
+        private volatile Status status = Status.RUNNING;
+        private volatile long finishedNanos;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(final String id) {
+            this.id = id;
+        }
+
+        private void finish(final Status result, final String message) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            error = message;
+            status = result;
+        }
+
+        private long elapsedMillis() {
+            long end = status == Status.RUNNING ? System.nanoTime() : finishedNanos;
+            return TimeUnit.NANOSECONDS.toMillis(end - startedNanos);
+        }
+
+        private ImagePreviewBackfillResponse toResponse() {
+            Status snapshot = status;
+            return ImagePreviewBackfillResponse.builder()
+                    .id(id)
+                    .status(snapshot)
+                    .images(images.get())
+                    .itemsUpdated(itemsUpdated.get())
+                    .unreadable(unreadable.get())
+                    .elapsedMillis(elapsedMillis())
+                    .startedAt(startedAt)
+                    .finishedAt(snapshot == Status.RUNNING ? null : finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Calcula o {@link ImagePreview} de uma capa. As dimensões vêm do cabeçalho e os pixels de uma leitura
+ * com subamostragem (~64 px no menor lado), então o custo quase não depende do tamanho da original.
+ *
+ * <p>O BlurHash segue a especificação de referência (github.com/woltapp/blurhash): componentes de
+ * cosseno sobre as cores em espaço linear, quantizados em base 83.
+ */
+final class ImagePreviews {
+
+    private static final int SAMPLE_SIZE = 64;
+    private static final int COMPONENTS_X = 4;
+    private static final int COMPONENTS_Y = 3;
+    private static final String BASE83 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private ImagePreviews() {
+    }
+
+    /**
+     * Retorna {@code null} se o arquivo não for uma imagem que o ImageIO consiga ler.
+     */
+    static ImagePreview read(final Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int step = Math.max(1, Math.min(width, height) / SAMPLE_SIZE);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage sample = reader.read(0, param);
+                double[][] factors = factors(sample);
+                return ImagePreview.builder()
+                        .width(width)
+                        .height(height)
+                        .dominantColor(String.format(Locale.ROOT, "#%06x", encodeDc(factors[0])))
+                        .blurHash(encode(factors))
+                        .build();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Componentes de cosseno da imagem; o primeiro (DC) é a cor média em espaço linear.
+     */
+    private static double[][] factors(final BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] linear = new double[width * height][3];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                double[] pixel = linear[y * width + x];
+                pixel[0] = srgbToLinear((rgb >> 16) & 0xFF);
+                pixel[1] = srgbToLinear((rgb >> 8) & 0xFF);
+                pixel[2] = srgbToLinear(rgb & 0xFF);
+            }
+        }
+        double[][] factors = new double[COMPONENTS_X * COMPONENTS_Y][3];
+        for (int j = 0; j < COMPONENTS_Y; j++) {
+            for (int i = 0; i < COMPONENTS_X; i++) {
+                double normalisation = i == 0 && j == 0 ? 1 : 2;
+                double[] factor = factors[j * COMPONENTS_X + i];
+                for (int y = 0; y < height; y++) {
+                    double basisY = Math.cos(Math.PI * j * y / height);
+                    for (int x = 0; x < width; x++) {
+                        double basis = normalisation * Math.cos(Math.PI * i * x / width) * basisY;
+                        double[] pixel = linear[y * width + x];
+                        factor[0] += basis * pixel[0];
+                        factor[1] += basis * pixel[1];
+                        factor[2] += basis * pixel[2];
+                    }
+                }
+                double scale = 1.0 / (width * height);
+                factor[0] *= scale;
+                factor[1] *= scale;
+                factor[2] *= scale;
+            }
+        }
+        return factors;
+    }
+
+    private static String encode(final double[][] factors) {
+        StringBuilder hash = new StringBuilder();
+        appendBase83(hash, (COMPONENTS_X - 1) + (COMPONENTS_Y - 1) * 9, 1);
+        double actualMaximum = 0;
+        for (int k = 1; k < factors.length; k++) {
+            for (double value : factors[k]) {
+                actualMaximum = Math.max(actualMaximum, Math.abs(value));
+            }
+        }
+        int quantisedMaximum = (int) Math.max(0, Math.min(82, Math.floor(actualMaximum * 166 - 0.5)));
+        double maximum = (quantisedMaximum + 1) / 166.0;
+        appendBase83(hash, quantisedMaximum, 1);
+        appendBase83(hash, encodeDc(factors[0]), 4);
+        for (int k = 1; k < factors.length; k++) {
+            appendBase83(hash, encodeAc(factors[k], maximum), 2);
+        }
+        return hash.toString();
+    }
+
+    private static int encodeDc(final double[] value) {
+        return (linearToSrgb(value[0]) << 16) | (linearToSrgb(value[1]) << 8) | linearToSrgb(value[2]);
+    }
+
+    private static int encodeAc(final double[] value, final double maximum) {
+        return quantiseAc(value[0] / maximum) * 19 * 19 + quantiseAc(value[1] / maximum) * 19
+                + quantiseAc(value[2] / maximum);
+    }
+
+    private static int quantiseAc(final double value) {
+        double signedRoot = Math.copySign(Math.sqrt(Math.abs(value)), value);
+        return (int) Math.max(0, Math.min(18, Math.floor(signedRoot * 9 + 9.5)));
+    }
+
+    private static double srgbToLinear(final int value) {
+        double v = value / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static int linearToSrgb(final double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void appendBase83(final StringBuilder hash, final int value, final int length) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / (int) Math.pow(83, length - i)) % 83;
+            hash.append(BASE83.charAt(digit));
+        }
+    }
+}
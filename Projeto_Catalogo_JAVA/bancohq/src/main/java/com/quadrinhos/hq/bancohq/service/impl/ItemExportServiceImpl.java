@@ -0,0 +1,68 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.service.ItemExportService;
+import com.quadrinhos.hq.bancohq.service.ItemService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exporta o catálogo com as mesmas colunas lidas pela importação, de modo que o arquivo gerado possa
+ * ser reimportado. Cada linha é escrita assim que o item sai do cursor do banco, então a memória não
+ * cresce com o tamanho do catálogo.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemExportServiceImpl implements ItemExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader(CsvItemImporter.COLUMNS.toArray(String[]::new))
+            .build();
+
+    private final ItemService itemService;
+
+    @Override
+    public void exportCsv(final ItemFilter filter, final OutputStream output) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        CSVPrinter printer = CSV_FORMAT.print(writer);
+        try {
+            itemService.streamSearch(filter, item -> {
+                try {
+                    printRecord(printer, item);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        printer.flush();
+    }
+
+    private static void printRecord(final CSVPrinter printer, final ItemResponse item) throws IOException {
+        printer.print(item.getTitle());
+        printer.print(item.getSeries());
+        printer.print(item.getIssueNumber());
+        printer.print(item.getPublisher());
+        printer.print(item.getLanguage());
+        printer.print(item.getCondition());
+        printer.print(item.getLocation());
+        printer.print(item.getDescription());
+        printer.print(item.getImageUrl());
+        printer.print(item.getStatus() == null ? null : item.getStatus().name());
+        printer.print(item.getTags() == null ? null : String.join(",", item.getTags()));
+        printer.println();
+    }
+}
@@ -0,0 +1,84 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.model.Item;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Avaliação em memória de um {@link ItemFilter}; é a referência de semântica para
+ * {@link com.quadrinhos.hq.bancohq.repository.ItemSpecifications}.
+ */
+public final class ItemFilterMatcher {
+
+    private ItemFilterMatcher() {
+    }
+
+    public static boolean matches(final Item item, final ItemFilter filter) {
+        String normalizedTerm = filter.normalizedTerm();
+        if (normalizedTerm != null && !matchesTerm(item, normalizedTerm)) {
+            return false;
+        }
+
+        String normalizedPublisher = filter.normalizedPublisher();
+        if (normalizedPublisher != null && !contains(item.getPublisher(), normalizedPublisher)) {
+            return false;
+        }
+
+        String normalizedSeries = filter.normalizedSeries();
+        if (normalizedSeries != null && !contains(item.getSeries(), normalizedSeries)) {
+            return false;
+        }
+
+        if (filter.getStatus() != null && item.getStatus() != filter.getStatus()) {
+            return false;
+        }
+
+        Set<String> normalizedTags = filter.normalizedTags();
+        if (!normalizedTags.isEmpty() && !matchesTags(item, normalizedTags)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    static boolean matchesTerm(final Item item, final String term) {
+        return contains(item.getTitle(), term)
+                || contains(item.getSeries(), term)
+                || contains(item.getPublisher(), term)
+                || contains(item.getDescription(), term)
+                || contains(item.getLocation(), term)
+                || contains(item.getLanguage(), term)
+                || containsTags(item, term);
+    }
+
+    private static boolean matchesTags(final Item item, final Set<String> tags) {
+        if (item.getTags() == null || item.getTags().isEmpty()) {
+            return false;
+        }
+        Set<String> normalizedItemTags = item.getTags().stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return normalizedItemTags.containsAll(tags);
+    }
+
+    private static boolean containsTags(final Item item, final String term) {
+        if (item.getTags() == null) {
+            return false;
+        }
+        return item.getTags().stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .anyMatch(tag -> tag.contains(term));
+    }
+
+    private static boolean contains(final String value, final String term) {
+        if (value == null) {
+            return false;
+        }
+        return value.toLowerCase(Locale.ROOT).contains(term);
+    }
+}
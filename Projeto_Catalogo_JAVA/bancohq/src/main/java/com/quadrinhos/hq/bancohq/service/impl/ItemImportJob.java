@@ -0,0 +1,129 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Status;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * Estado de um job de importação. Os contadores são atualizados pela thread do job e lidos por
+ * quem consulta o progresso; as transições de status são sincronizadas no próprio objeto.
+ */
+@Getter
+class ItemImportJob {
+
+    private final String id;
+    private final String fileName;
+    private final Path spoolFile;
+    private final Path rejectedFile;
+    private final long totalBytes;
+    private final Mode mode;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    ItemImportJob(final String id, final String fileName, final Path spoolFile, final Path rejectedFile,
+            final long totalBytes, final Mode mode) {
+        this.id = id;
+        this.fileName = fileName;
+        this.spoolFile = spoolFile;
+        this.rejectedFile = rejectedFile;
+        this.totalBytes = totalBytes;
+        this.mode = mode;
+    }
+
+    void attach(final Future<?> submitted) {
+        this.future = submitted;
+    }
+
+    /**
+     * Marca o job como em execução; retorna {@code false} se ele foi cancelado enquanto esperava na fila.
+     */
+    synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        status = Status.RUNNING;
+        return true;
+    }
+
+    synchronized void finish(final Status finalStatus, final String failure) {
+        if (status.isFinished()) {
+            return;
+        }
+        error = failure;
+        finishedAt = LocalDateTime.now();
+        finishedNanos = System.nanoTime();
+        status = finalStatus;
+    }
+
+    /**
+     * Um job na fila é cancelado na hora; um job em execução para ao fim da linha atual, mantendo os
+     * lotes já confirmados.
+     */
+    synchronized void cancel() {
+        cancelRequested = true;
+        if (status == Status.QUEUED) {
+            if (future != null) {
+                future.cancel(false);
+            }
+            finish(Status.CANCELLED, null);
+        }
+    }
+
+    ItemImportJobResponse toResponse(final String rejectedReportUrl) {
+        Status current = status;
+        long parsedRows = parsed.get();
+        long read = bytesRead.get();
+        Double rowsPerSecond = null;
+        Long etaSeconds = null;
+        if (current != Status.QUEUED && startedNanos != 0) {
+            long elapsedNanos = (current.isFinished() ? finishedNanos : System.nanoTime()) - startedNanos;
+            if (elapsedNanos > 0) {
+                rowsPerSecond = parsedRows * 1_000_000_000d / elapsedNanos;
+            }
+            if (current == Status.RUNNING && read > 0 && totalBytes > read) {
+                etaSeconds = (long) Math.ceil(elapsedNanos / 1_000_000_000d * (totalBytes - read) / read);
+            }
+        }
+        return ItemImportJobResponse.builder()
+                .id(id)
+                .fileName(fileName)
+                .status(current)
+                .mode(mode)
+                .parsed(parsedRows)
+                .inserted(inserted.get())
+                .updated(updated.get())
+                .skipped(skipped.get())
+                .rejected(rejected.get())
+                .bytesRead(read)
+                .totalBytes(totalBytes)
+                .rowsPerSecond(rowsPerSecond)
+                .etaSeconds(current.isFinished() ? Long.valueOf(0) : etaSeconds)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .rejectedReportUrl(rejected.get() > 0 ? rejectedReportUrl : null)
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.config.ImportProperties;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Status;
+import com.quadrinhos.hq.bancohq.exception.ImportCapacityExceededException;
+import com.quadrinhos.hq.bancohq.exception.ImportJobNotFoundException;
+import com.quadrinhos.hq.bancohq.service.ItemImportService;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Executa importações em segundo plano. Os jobs ficam em memória até expirarem; no máximo
+ * {@code maxConcurrentJobs} rodam ao mesmo tempo e outros {@code maxQueuedJobs} aguardam na fila, de
+ * modo que um arquivo grande não consome todas as conexões do pool.
+ */
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+
+    private final CsvItemImporter importer;
+    private final ImportProperties properties;
+    private final Path spoolDirectory;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ItemImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ItemImportServiceImpl(final CsvItemImporter importer, final ImportProperties properties,
+            final Environment environment) {
+        this.importer = importer;
+        this.properties = properties;
+        this.spoolDirectory = Paths.get(properties.getSpoolLocation()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(spoolDirectory);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de importação.", exception);
+        }
+        this.executor = new ThreadPoolExecutor(properties.getMaxConcurrentJobs(), properties.getMaxConcurrentJobs(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getMaxQueuedJobs()),
+                jobThreadFactory(environment));
+    }
+
+    /**
+     * Os jobs passam quase todo o tempo em I/O (arquivo e banco); com {@code spring.threads.virtual.enabled}
+     * rodam em threads virtuais. O limite de jobs simultâneos continua sendo o do pool.
+     */
+    private static ThreadFactory jobThreadFactory(final Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Thread.ofVirtual().name("catalogo-import-", 1).factory();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "catalogo-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public ItemImportJobResponse submit(final String fileName, final InputStream content, final Mode mode)
+            throws IOException {
+        purgeExpiredJobs();
+        String jobId = UUID.randomUUID().toString();
+        Path spoolFile = spoolDirectory.resolve(jobId + ".csv");
+        long size = Files.copy(content, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+        ItemImportJob job = new ItemImportJob(jobId, fileName, spoolFile,
+                spoolDirectory.resolve(jobId + "-rejected.csv"), size, mode);
+        jobs.put(jobId, job);
+        try {
+            job.attach(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException exception) {
+            jobs.remove(jobId);
+            Files.deleteIfExists(spoolFile);
+            throw new ImportCapacityExceededException();
+        }
+        return toResponse(job);
+    }
+
+    @Override
+    public ItemImportJobResponse findJob(final String jobId) {
+        return toResponse(getJob(jobId));
+    }
+
+    @Override
+    public ItemImportJobResponse cancel(final String jobId) {
+        ItemImportJob job = getJob(jobId);
+        job.cancel();
+        executor.purge();
+        return toResponse(job);
+    }
+
+    @Override
+    public Resource rejectedReport(final String jobId) {
+        ItemImportJob job = getJob(jobId);
+        if (!Files.exists(job.getRejectedFile())) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+        return new FileSystemResource(job.getRejectedFile());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(ItemImportJob::cancel);
+        executor.shutdownNow();
+    }
+
+    private void run(final ItemImportJob job) {
+        if (!job.start()) {
+            deleteQuietly(job.getSpoolFile());
+            return;
+        }
+        try (InputStream input = Files.newInputStream(job.getSpoolFile());
+                Writer rejected = Files.newBufferedWriter(job.getRejectedFile(), StandardCharsets.UTF_8)) {
+            importer.importCsv(job, input, rejected, properties.getChunkSize());
+            job.finish(job.isCancelRequested() ? Status.CANCELLED : Status.COMPLETED, null);
+            log.info("Importação {} encerrada: {} lidas, {} inseridas, {} atualizadas, {} inalteradas, "
+                    + "{} rejeitadas", job.getId(), job.getParsed().get(), job.getInserted().get(),
+                    job.getUpdated().get(), job.getSkipped().get(), job.getRejected().get());
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Importação {} falhou após {} linhas gravadas", job.getId(), job.getInserted().get(),
+                    exception);
+            job.finish(Status.FAILED, exception.getMessage());
+        } finally {
+            deleteQuietly(job.getSpoolFile());
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(properties.getRetention());
+        jobs.values().removeIf(job -> {
+            boolean expired = job.getStatus().isFinished() && job.getFinishedAt().isBefore(limit);
+            if (expired) {
+                deleteQuietly(job.getRejectedFile());
+            }
+            return expired;
+        });
+    }
+
+    private ItemImportJob getJob(final String jobId) {
+        ItemImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    private ItemImportJobResponse toResponse(final ItemImportJob job) {
+        return job.toResponse("/api/items/import/" + job.getId() + "/rejected");
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("Não foi possível remover {}", path, exception);
+        }
+    }
+}
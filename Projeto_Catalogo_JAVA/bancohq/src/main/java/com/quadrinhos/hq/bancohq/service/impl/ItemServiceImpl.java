@@ -1,31 +1,43 @@
 package com.quadrinhos.hq.bancohq.service.impl;
 
+import com.quadrinhos.hq.bancohq.cache.ItemCache;
+import com.quadrinhos.hq.bancohq.cache.SearchResultCache;
+import com.quadrinhos.hq.bancohq.dto.ItemCursor;
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse;
 import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemPageRequest;
+import com.quadrinhos.hq.bancohq.dto.ItemPageResponse;
 import com.quadrinhos.hq.bancohq.dto.ItemRequest;
 import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemSortField;
+import com.quadrinhos.hq.bancohq.event.ItemChangedEvent;
+import com.quadrinhos.hq.bancohq.event.ItemsImportedEvent;
 import com.quadrinhos.hq.bancohq.exception.ItemNotFoundException;
 import com.quadrinhos.hq.bancohq.mapper.ItemMapper;
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
 import com.quadrinhos.hq.bancohq.model.Item;
 import com.quadrinhos.hq.bancohq.model.ItemStatus;
 import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import com.quadrinhos.hq.bancohq.repository.ItemSpecifications;
+import com.quadrinhos.hq.bancohq.search.ItemSearchIndex;
 import com.quadrinhos.hq.bancohq.service.ItemService;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -33,22 +45,26 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
-    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
-            .setHeader()
-            .setSkipHeaderRecord(true)
-            .setIgnoreEmptyLines(true)
-            .setTrim(true)
-            .build();
+    private static final int HYDRATION_BATCH_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 500;
 
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
+    private final ItemSearchIndex searchIndex;
+    private final ItemCache itemCache;
+    private final SearchResultCache searchCache;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * As escritas fazem flush antes de mapear a resposta: a versão e o {@code updatedAt} só são gerados no
+     * UPDATE/INSERT, e a resposta publicada no evento alimenta o índice e os ETags.
+     */
     @Override
     @Transactional
     public ItemResponse create(final ItemRequest request) {
         Item item = itemMapper.toEntity(request);
-        Item saved = itemRepository.save(item);
-        return itemMapper.toResponse(saved);
+        Item saved = itemRepository.saveAndFlush(item);
+        return published(itemMapper.toResponse(saved));
     }
 
     @Override
@@ -56,8 +72,8 @@ public class ItemServiceImpl implements ItemService {
     public ItemResponse update(final Long id, final ItemRequest request) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new ItemNotFoundException(id));
         itemMapper.updateEntity(item, request);
-        Item updated = itemRepository.save(item);
-        return itemMapper.toResponse(updated);
+        Item updated = itemRepository.saveAndFlush(item);
+        return published(itemMapper.toResponse(updated));
     }
 
     @Override
@@ -65,15 +81,20 @@ public class ItemServiceImpl implements ItemService {
     public ItemResponse updateStatus(final Long id, final ItemStatus status) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new ItemNotFoundException(id));
         item.setStatus(status);
-        Item updated = itemRepository.save(item);
-        return itemMapper.toResponse(updated);
+        Item updated = itemRepository.saveAndFlush(item);
+        return published(itemMapper.toResponse(updated));
     }
 
+    /**
+     * Leitura pelo cache: um acerto não abre transação nem toma conexão do pool. Na falta, o item é
+     * carregado com as tags em uma única consulta.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemResponse findById(final Long id) {
-        return itemRepository.findById(id)
+        return itemCache.get(id, key -> itemRepository.findWithTagsById(key)
                 .map(itemMapper::toResponse)
-                .orElseThrow(() -> new ItemNotFoundException(id));
+                .orElseThrow(() -> new ItemNotFoundException(key)));
     }
 
     @Override
@@ -84,154 +105,277 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public List<ItemResponse> search(final ItemFilter filter) {
         ItemFilter effectiveFilter = Optional.ofNullable(filter).orElse(ItemFilter.builder().build());
-        return itemRepository.findAll()
+        return searchCache.get(effectiveFilter, () -> searchUncached(effectiveFilter));
+    }
+
+    private List<ItemResponse> searchUncached(final ItemFilter effectiveFilter) {
+        if (effectiveFilter.hasCriteria()) {
+            Roaring64Bitmap ids = searchIndex.resolve(effectiveFilter);
+            if (ids != null) {
+                return hydrate(ids, effectiveFilter);
+            }
+        }
+        return itemRepository.findAll(ItemSpecifications.matching(effectiveFilter), Sort.by("id"))
                 .stream()
-                .filter(item -> matchesFilter(item, effectiveFilter))
                 .map(itemMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional
-    public List<ItemResponse> importFromCsv(final InputStream inputStream) {
-        if (inputStream == null) {
-            return List.of();
-        }
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-                CSVParser parser = CSV_FORMAT.parse(reader)) {
-            List<ItemResponse> responses = new ArrayList<>();
-            for (CSVRecord record : parser) {
-                ItemRequest request = toRequest(record);
-                Item item = itemMapper.toEntity(request);
-                Item saved = itemRepository.save(item);
-                responses.add(itemMapper.toResponse(saved));
+    public void streamSearch(final ItemFilter filter, final Consumer<ItemResponse> consumer) {
+        ItemFilter effectiveFilter = Optional.ofNullable(filter).orElse(ItemFilter.builder().build());
+        Consumer<Item> action = item -> consumer.accept(itemMapper.toResponse(item));
+        if (effectiveFilter.hasCriteria()) {
+            Roaring64Bitmap ids = searchIndex.resolve(effectiveFilter);
+            if (ids != null) {
+                Specification<Item> exactCriteria = ItemSpecifications.matching(
+                        effectiveFilter.toBuilder().term(null).build());
+                long[] chunk = new long[HYDRATION_BATCH_SIZE];
+                int size = 0;
+                LongIterator iterator = ids.getLongIterator();
+                while (iterator.hasNext()) {
+                    chunk[size++] = iterator.next();
+                    if (size == chunk.length || !iterator.hasNext()) {
+                        Specification<Item> chunkSpecification = exactCriteria
+                                .and(ItemSpecifications.idIn(Arrays.copyOf(chunk, size)));
+                        itemRepository.scrollAll(chunkSpecification, STREAM_FETCH_SIZE, action);
+                        size = 0;
+                    }
+                }
+                return;
             }
-            return responses;
-        } catch (IOException | IllegalArgumentException exception) {
-            throw new IllegalArgumentException("Não foi possível importar o arquivo CSV.", exception);
         }
-    }
-
-    @Override
-    @Transactional
-    public void delete(final Long id) {
-        if (!itemRepository.existsById(id)) {
-            throw new ItemNotFoundException(id);
+        if (!effectiveFilter.hasCriteria()) {
+            itemRepository.scrollAllWithTags(STREAM_FETCH_SIZE, action);
+            return;
         }
-        itemRepository.deleteById(id);
+        itemRepository.scrollAll(ItemSpecifications.matching(effectiveFilter), STREAM_FETCH_SIZE, action);
     }
 
-    private boolean matchesFilter(final Item item, final ItemFilter filter) {
-        String normalizedTerm = filter.normalizedTerm();
-        if (normalizedTerm != null && !matchesTerm(item, normalizedTerm)) {
-            return false;
-        }
+    @Override
+    public ItemPageResponse searchPage(final ItemFilter filter, final ItemPageRequest pageRequest) {
+        ItemFilter effectiveFilter = Optional.ofNullable(filter).orElse(ItemFilter.builder().build());
+        ItemSortField field = pageRequest.sortField();
+        Sort.Direction direction = pageRequest.sortDirection();
+        int size = pageRequest.effectiveSize();
 
-        String normalizedPublisher = filter.normalizedPublisher();
-        if (normalizedPublisher != null && !matchesPublisher(item, normalizedPublisher)) {
-            return false;
+        ItemCursor cursor = null;
+        if (pageRequest.getCursor() != null && !pageRequest.getCursor().isBlank()) {
+            cursor = ItemCursor.decode(pageRequest.getCursor());
+            if (cursor.field() != field || cursor.direction() != direction) {
+                throw new IllegalArgumentException("Cursor não corresponde à ordenação solicitada.");
+            }
         }
 
-        String normalizedSeries = filter.normalizedSeries();
-        if (normalizedSeries != null && !matchesSeries(item, normalizedSeries)) {
-            return false;
-        }
+        Roaring64Bitmap ids = effectiveFilter.normalizedTerm() == null ? null : searchIndex.resolve(effectiveFilter);
+        Specification<Item> specification = ids == null
+                ? ItemSpecifications.matching(effectiveFilter)
+                : ItemSpecifications.matching(effectiveFilter.toBuilder().term(null).build());
+        Specification<Item> pageSpecification = cursor == null
+                ? specification
+                : specification.and(ItemSpecifications.seek(cursor));
+        boolean backward = cursor != null && cursor.backward();
+        Sort.Direction scanDirection = backward == direction.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = field == ItemSortField.ID
+                ? Sort.by(scanDirection, "id")
+                : Sort.by(scanDirection, field.getAttribute()).and(Sort.by(scanDirection, "id"));
 
-        if (filter.getStatus() != null && item.getStatus() != filter.getStatus()) {
-            return false;
+        List<Item> rows = ids == null
+                ? itemRepository.findBy(pageSpecification, query -> query.sortBy(sort).limit(size + 1).all())
+                : field == ItemSortField.ID
+                        ? findIndexedRows(pageSpecification, sort, size + 1, idScan(ids, scanDirection, cursor), true)
+                        : findIndexedRows(pageSpecification, sort, size + 1, ids.getLongIterator(), false);
+        boolean hasMore = rows.size() > size;
+        List<Item> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(page);
         }
 
-        Set<String> normalizedTags = filter.normalizedTags();
-        if (!normalizedTags.isEmpty() && !matchesTags(item, normalizedTags)) {
-            return false;
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!page.isEmpty()) {
+            boolean hasNext = backward || hasMore;
+            boolean hasPrev = backward ? hasMore : cursor != null;
+            if (hasNext) {
+                nextCursor = ItemCursor.after(field, direction, page.get(page.size() - 1)).encode();
+            }
+            if (hasPrev) {
+                prevCursor = ItemCursor.before(field, direction, page.get(0)).encode();
+            }
         }
 
-        return true;
-    }
-
-    private boolean matchesTerm(final Item item, final String term) {
-        return contains(item.getTitle(), term)
-                || contains(item.getSeries(), term)
-                || contains(item.getPublisher(), term)
-                || contains(item.getDescription(), term)
-                || contains(item.getLocation(), term)
-                || contains(item.getLanguage(), term)
-                || containsTags(item, term);
+        return ItemPageResponse.builder()
+                .data(page.stream().map(itemMapper::toResponse).collect(Collectors.toList()))
+                .size(size)
+                .sort(pageRequest.normalizedSort())
+                .totalElements(pageRequest.isIncludeTotal() ? totalOf(specification, ids) : null)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .build();
     }
 
-    private boolean matchesPublisher(final Item item, final String publisher) {
-        return contains(item.getPublisher(), publisher);
+    @Override
+    public ItemFacetsResponse facets(final ItemFilter filter, final int tagLimit) {
+        ItemFilter effectiveFilter = Optional.ofNullable(filter).orElse(ItemFilter.builder().build());
+        ItemFacetsResponse indexed = searchIndex.facets(effectiveFilter, tagLimit);
+        if (indexed != null) {
+            return indexed;
+        }
+        Specification<Item> specification = ItemSpecifications.matching(effectiveFilter);
+        return ItemFacetsResponse.builder()
+                .total(itemRepository.count(specification))
+                .publishers(itemRepository.countBy("publisher", specification))
+                .series(itemRepository.countBy("series", specification))
+                .statuses(itemRepository.countBy("status", specification))
+                .tags(itemRepository.countTags(specification, tagLimit))
+                .build();
     }
 
-    private boolean matchesSeries(final Item item, final String series) {
-        return contains(item.getSeries(), series);
+    @Override
+    @Transactional
+    public List<Long> importBatch(final List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        List<Item> items = new ArrayList<>(requests.size());
+        for (ItemRequest request : requests) {
+            items.add(itemMapper.toEntity(request));
+        }
+        itemRepository.insertBatch(items);
+        List<Long> ids = new ArrayList<>(items.size());
+        List<ItemResponse> responses = new ArrayList<>(items.size());
+        for (Item item : items) {
+            ids.add(item.getId());
+            responses.add(itemMapper.toResponse(item));
+        }
+        eventPublisher.publishEvent(new ItemsImportedEvent(responses));
+        return ids;
     }
 
-    private boolean matchesTags(final Item item, final Set<String> tags) {
-        if (item.getTags() == null || item.getTags().isEmpty()) {
-            return false;
+    @Override
+    @Transactional
+    public int updateBatch(final Map<Long, ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return 0;
+        }
+        List<Item> items = itemRepository.findAllById(requests.keySet());
+        for (Item item : items) {
+            itemMapper.updateEntity(item, requests.get(item.getId()));
         }
-        Set<String> normalizedItemTags = item.getTags().stream()
-                .filter(tag -> tag != null && !tag.isBlank())
-                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-        return normalizedItemTags.containsAll(tags);
+        itemRepository.flush();
+        List<ItemResponse> responses = new ArrayList<>(items.size());
+        for (Item item : items) {
+            responses.add(itemMapper.toResponse(item));
+        }
+        eventPublisher.publishEvent(new ItemsImportedEvent(responses));
+        return responses.size();
     }
 
-    private boolean containsTags(final Item item, final String term) {
-        if (item.getTags() == null) {
-            return false;
+    @Override
+    @Transactional
+    public void delete(final Long id) {
+        if (!itemRepository.existsById(id)) {
+            throw new ItemNotFoundException(id);
         }
-        return item.getTags().stream()
-                .filter(tag -> tag != null && !tag.isBlank())
-                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
-                .anyMatch(tag -> tag.contains(term));
+        itemRepository.deleteById(id);
+        eventPublisher.publishEvent(ItemChangedEvent.deleted(id));
     }
 
-    private boolean contains(final String value, final String term) {
-        if (value == null) {
-            return false;
+    @Override
+    @Transactional
+    public int applyImagePreviews(final Map<String, ImagePreview> previews) {
+        if (previews.isEmpty()) {
+            return 0;
+        }
+        List<Item> items = itemRepository.findByImageUrlIn(previews.keySet());
+        List<Item> changed = new ArrayList<>(items.size());
+        for (Item item : items) {
+            if (item.getImagePreview() == null) {
+                item.setImagePreview(previews.get(item.getImageUrl()));
+                changed.add(item);
+            }
         }
-        return value.toLowerCase(Locale.ROOT).contains(term);
+        itemRepository.flush();
+        List<ItemResponse> responses = new ArrayList<>(changed.size());
+        for (Item item : changed) {
+            responses.add(itemMapper.toResponse(item));
+        }
+        eventPublisher.publishEvent(new ItemsImportedEvent(responses));
+        return responses.size();
     }
 
-    private ItemRequest toRequest(final CSVRecord record) {
-        ItemRequest request = new ItemRequest();
-        request.setTitle(record.get("title"));
-        request.setSeries(getOptional(record, "series"));
-        request.setIssueNumber(record.get("issueNumber"));
-        request.setPublisher(record.get("publisher"));
-        request.setLanguage(getOptional(record, "language"));
-        request.setCondition(getOptional(record, "condition"));
-        request.setLocation(getOptional(record, "location"));
-        request.setDescription(getOptional(record, "description"));
-        request.setImageUrl(getOptional(record, "imageUrl"));
-        request.setStatus(ItemStatus.fromString(getOptional(record, "status")));
-        request.setTags(parseTags(getOptional(record, "tags")));
-        return request;
+    private ItemResponse published(final ItemResponse response) {
+        eventPublisher.publishEvent(ItemChangedEvent.upserted(response));
+        return response;
     }
 
-    private String getOptional(final CSVRecord record, final String column) {
-        if (!record.isMapped(column) || record.get(column) == null) {
-            return null;
+    /**
+     * Carrega apenas os itens já selecionados pelo índice, em lotes por id. Os critérios exatos são
+     * conferidos novamente para descartar entradas de um índice defasado.
+     */
+    private List<ItemResponse> hydrate(final Roaring64Bitmap ids, final ItemFilter filter) {
+        ItemFilter exactCriteria = filter.toBuilder().term(null).build();
+        List<ItemResponse> responses = new ArrayList<>((int) Math.min(ids.getLongCardinality(), Integer.MAX_VALUE));
+        List<Long> chunk = new ArrayList<>(HYDRATION_BATCH_SIZE);
+        LongIterator iterator = ids.getLongIterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == HYDRATION_BATCH_SIZE || !iterator.hasNext()) {
+                itemRepository.findAllById(chunk).stream()
+                        .sorted(Comparator.comparing(Item::getId))
+                        .filter(item -> ItemFilterMatcher.matches(item, exactCriteria))
+                        .map(itemMapper::toResponse)
+                        .forEach(responses::add);
+                chunk.clear();
+            }
         }
-        String value = record.get(column).trim();
-        return value.isEmpty() ? null : value;
+        return responses;
     }
 
-    private Set<String> parseTags(final String columnValue) {
-        if (columnValue == null || columnValue.isBlank()) {
-            return Set.of();
-        }
-        String[] parts = columnValue.split(",");
-        Set<String> tags = new LinkedHashSet<>();
-        for (String part : parts) {
-            String cleaned = part.trim();
-            if (!cleaned.isEmpty()) {
-                tags.add(cleaned);
+    /**
+     * Página de um resultado resolvido pelo índice, que segue sendo a fonte da busca por texto (com
+     * normalização de acentos) em qualquer tamanho de resultado. Os ids são consultados em blocos de até
+     * {@value #HYDRATION_BATCH_SIZE}, somados aos melhores candidatos até ali: o banco ordena cada bloco e o
+     * último resultado é a página. Na ordenação por id os blocos já chegam na ordem da página, então a
+     * busca para no primeiro bloco que a completa.
+     */
+    private List<Item> findIndexedRows(final Specification<Item> criteria, final Sort sort, final int limit,
+            final LongIterator scan, final boolean ordered) {
+        List<Item> rows = List.of();
+        long[] chunk = new long[HYDRATION_BATCH_SIZE + limit];
+        while (scan.hasNext()) {
+            int count = 0;
+            for (Item row : rows) {
+                chunk[count++] = row.getId();
+            }
+            int end = count + HYDRATION_BATCH_SIZE;
+            while (count < end && scan.hasNext()) {
+                chunk[count++] = scan.next();
+            }
+            Specification<Item> chunkCriteria = criteria.and(ItemSpecifications.idIn(Arrays.copyOf(chunk, count)));
+            rows = itemRepository.findBy(chunkCriteria, query -> query.sortBy(sort).limit(limit).all());
+            if (ordered && rows.size() == limit) {
+                break;
             }
         }
-        return tags;
+        return rows;
+    }
+
+    /**
+     * Na ordenação por id o índice já entrega os ids na ordem da página, a partir do cursor.
+     */
+    private static LongIterator idScan(final Roaring64Bitmap ids, final Sort.Direction scanDirection,
+            final ItemCursor cursor) {
+        if (scanDirection.isAscending()) {
+            return cursor == null ? ids.getLongIterator() : ids.getLongIteratorFrom(cursor.id());
+        }
+        return cursor == null ? ids.getReverseLongIterator() : ids.getReverseLongIteratorFrom(cursor.id());
+    }
+
+    /**
+     * Com o índice, o total é a cardinalidade do resultado, o mesmo número das facetas.
+     */
+    private long totalOf(final Specification<Item> specification, final Roaring64Bitmap ids) {
+        return ids == null ? itemRepository.count(specification) : ids.getLongCardinality();
     }
 }
@@ -0,0 +1,190 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import com.quadrinhos.hq.bancohq.dto.ItemRequest;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.search.TextAnalyzer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória da chave natural (editora + série + número) usado pela importação em modo upsert.
+ * Guarda apenas um hash de 64 bits da chave, o id e uma impressão digital de 64 bits do conteúdo em
+ * arrays primitivos com endereçamento aberto: de 24 a 48 bytes por item, sem objetos por entrada.
+ *
+ * <p>A chave é comparada sem acentos, maiúsculas ou espaços repetidos; a impressão digital usa os
+ * valores exatos como o {@link com.quadrinhos.hq.bancohq.mapper.ItemMapper} os grava, de modo que uma
+ * linha idêntica ao que está no banco é reconhecida sem consulta. Colisões de hash de 64 bits são
+ * desprezíveis para catálogos deste tamanho e não são verificadas.
+ */
+final class NaturalKeyIndex {
+
+    /**
+     * Id provisório de uma linha já enfileirada para inserção, cujo id ainda não foi gerado.
+     */
+    static final long PENDING_ID = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long EMPTY = 0L;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char SEPARATOR = '\u0000';
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private long[] keys;
+    private long[] ids;
+    private long[] fingerprints;
+    private int size;
+
+    NaturalKeyIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Retorna a posição da chave ou -1 se ela não estiver no índice.
+     */
+    int find(final long key) {
+        int mask = keys.length - 1;
+        for (int slot = (int) key & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    long idAt(final int slot) {
+        return ids[slot];
+    }
+
+    long fingerprintAt(final int slot) {
+        return fingerprints[slot];
+    }
+
+    void put(final long key, final long id, final long fingerprint) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = (int) key & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        ids[slot] = id;
+        fingerprints[slot] = fingerprint;
+    }
+
+    void put(final ItemResponse item) {
+        put(keyOf(item.getPublisher(), item.getSeries(), item.getIssueNumber()), item.getId(), fingerprintOf(item));
+    }
+
+    static long keyOf(final ItemRequest request) {
+        return keyOf(request.getPublisher(), request.getSeries(), request.getIssueNumber());
+    }
+
+    static long keyOf(final String publisher, final String series, final String issueNumber) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, naturalKeyPart(publisher));
+        hash = mix(hash, naturalKeyPart(series));
+        hash = mix(hash, naturalKeyPart(issueNumber));
+        long key = finish(hash);
+        return key == EMPTY ? 1L : key;
+    }
+
+    static long fingerprintOf(final ItemRequest request) {
+        return fingerprintOf(request.getTitle(), request.getSeries(), request.getIssueNumber(),
+                request.getPublisher(), request.getLanguage(), request.getCondition(), request.getLocation(),
+                request.getDescription(), request.getImageUrl(), request.getStatus(), request.getTags());
+    }
+
+    static long fingerprintOf(final ItemResponse item) {
+        return fingerprintOf(item.getTitle(), item.getSeries(), item.getIssueNumber(), item.getPublisher(),
+                item.getLanguage(), item.getCondition(), item.getLocation(), item.getDescription(),
+                item.getImageUrl(), item.getStatus(), item.getTags());
+    }
+
+    private static long fingerprintOf(final String title, final String series, final String issueNumber,
+            final String publisher, final String language, final String condition, final String location,
+            final String description, final String imageUrl, final ItemStatus status,
+            final Collection<String> tags) {
+        long hash = FNV_OFFSET;
+        for (String value : new String[] {title, series, issueNumber, publisher, language, condition, location,
+            description, imageUrl}) {
+            hash = mix(hash, stored(value));
+        }
+        hash = mix(hash, status == null ? "" : status.name());
+        String[] sortedTags = tags == null ? new String[0] : tags.toArray(String[]::new);
+        Arrays.sort(sortedTags);
+        for (String tag : sortedTags) {
+            hash = mix(hash, tag);
+        }
+        return finish(hash);
+    }
+
+    /**
+     * Mesmo tratamento do mapper: espaços nas pontas são descartados e texto vazio vira nulo.
+     */
+    private static String stored(final String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static String naturalKeyPart(final String value) {
+        if (value == null || value.isBlank()) {
+            return "";
+        }
+        return WHITESPACE.matcher(TextAnalyzer.fold(value.trim())).replaceAll(" ");
+    }
+
+    /**
+     * FNV-1a sobre os caracteres, com um separador entre campos para que "ab" + "c" e "a" + "bc"
+     * gerem hashes diferentes.
+     */
+    private static long mix(final long seed, final String value) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ SEPARATOR) * FNV_PRIME;
+    }
+
+    /**
+     * Finalizador do MurmurHash3: espalha os bits altos do FNV pelos bits baixos usados no endereçamento.
+     */
+    private static long finish(final long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        ids = new long[capacity];
+        fingerprints = new long[capacity];
+    }
+
+    private void rehash(final int capacity) {
+        long[] oldKeys = keys;
+        long[] oldIds = ids;
+        long[] oldFingerprints = fingerprints;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldIds[i], oldFingerprints[i]);
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.quadrinhos.hq.bancohq.service.impl;
 
 import com.quadrinhos.hq.bancohq.dto.RegisterRequest;
+import com.quadrinhos.hq.bancohq.exception.TokenRevocationDisabledException;
 import com.quadrinhos.hq.bancohq.model.Role;
 import com.quadrinhos.hq.bancohq.model.UserAccount;
 import com.quadrinhos.hq.bancohq.repository.UserAccountRepository;
+import com.quadrinhos.hq.bancohq.security.TokenVersionCache;
 import com.quadrinhos.hq.bancohq.service.UserService;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,6 +13,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @Transactional(readOnly = true)
@@ -18,10 +22,13 @@ public class UserServiceImpl implements UserService {
 
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
 
-    public UserServiceImpl(UserAccountRepository userAccountRepository, @Lazy PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserAccountRepository userAccountRepository, @Lazy PasswordEncoder passwordEncoder,
+            TokenVersionCache tokenVersionCache) {
         this.userAccountRepository = userAccountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     @Override
@@ -40,6 +47,31 @@ public class UserServiceImpl implements UserService {
         return userAccountRepository.save(account);
     }
 
+    @Override
+    @Transactional
+    public void revokeTokens(final String username) {
+        if (!tokenVersionCache.isEnabled()) {
+            throw new TokenRevocationDisabledException();
+        }
+        String normalizedUsername = username.toLowerCase();
+        userAccountRepository.incrementTokenVersion(normalizedUsername);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenVersionCache.invalidate(normalizedUsername);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(final UserDetails user, final String newPassword) {
+        UserAccount account = userAccountRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado."));
+        account.setPassword(newPassword);
+        return account;
+    }
+
     @Override
     public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
         return userAccountRepository.findByUsername(username.toLowerCase())
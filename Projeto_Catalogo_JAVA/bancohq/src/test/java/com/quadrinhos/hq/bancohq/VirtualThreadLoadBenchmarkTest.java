@@ -0,0 +1,158 @@
+package com.quadrinhos.hq.bancohq;
+
+import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import com.quadrinhos.hq.bancohq.search.ItemSearchIndex;
+import jakarta.servlet.Filter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Vazão com muitos clientes simultâneos no pool de plataforma do Tomcat (200 threads) e no modo de
+ * threads virtuais ({@code application-virtual.yml}). O primeiro cenário usa um filtro de teste que espera
+ * {@value #LATENCY_MILLIS} ms em cada requisição, simulando a espera por banco ou disco; o segundo pagina
+ * {@code /api/items} de verdade sobre {@value #CATALOG_SIZE} itens. Executar com
+ * {@code mvn test -Dbenchmarks=true -Dtest=VirtualThreadLoadBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final long LATENCY_MILLIS = 2_000;
+    private static final int CLIENTS = 1_000;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final int CATALOG_SIZE = 5_000;
+    private static final int PUBLISHERS = 20;
+
+    @Test
+    void compareThroughputAtHighConcurrency() throws Exception {
+        run("plataforma (200 threads)", "test", false, port -> List.of(uri(port, "/api/items/wishlist")));
+        run("threads virtuais", "test,virtual", false, port -> List.of(uri(port, "/api/items/wishlist")));
+    }
+
+    /**
+     * Sem latência artificial: cada cliente alterna entre páginas filtradas por editora, passando pelo
+     * índice, pelo cache de resultados e pelo banco. No perfil de teste o H2 sincroniza na sessão.
+     */
+    @Test
+    void compareRealItemReads() throws Exception {
+        run("plataforma (200 threads)", "test", true, VirtualThreadLoadBenchmarkTest::pageUris);
+        run("threads virtuais", "test,virtual", true, VirtualThreadLoadBenchmarkTest::pageUris);
+    }
+
+    private static void run(final String label, final String profiles, final boolean seed,
+            final Function<String, List<URI>> uris) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BancoHqApplication.class,
+                BlockingLatency.class)
+                .run("--spring.profiles.active=" + profiles, "--server.port=0",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false")) {
+            if (seed) {
+                seed(context);
+            }
+            List<URI> targets = uris.apply(context.getEnvironment().getProperty("local.server.port"));
+            load(targets, WARMUP);
+            long[] result = load(targets, MEASUREMENT);
+            System.out.printf("%-26s %7.0f req/s  erros=%d%n", label,
+                    result[0] / (double) MEASUREMENT.toSeconds(), result[1]);
+        }
+    }
+
+    private static void seed(final ConfigurableApplicationContext context) {
+        List<Item> catalog = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            catalog.add(Item.builder()
+                    .title("Edição " + i)
+                    .series("Série " + i % 250)
+                    .issueNumber(String.valueOf(i))
+                    .publisher("Editora " + i % PUBLISHERS)
+                    .status(ItemStatus.OWNED)
+                    .build());
+        }
+        context.getBean(ItemRepository.class).saveAll(catalog);
+        context.getBean(ItemSearchIndex.class).rebuild();
+    }
+
+    private static List<URI> pageUris(final String port) {
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < PUBLISHERS; i++) {
+            uris.add(uri(port, "/api/items?size=20&sort=title&publisher=Editora%20" + i));
+        }
+        return uris;
+    }
+
+    private static URI uri(final String port, final String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * Cada cliente é uma thread virtual que envia requisições em sequência até o prazo, alternando entre
+     * as URIs; só contam as respostas recebidas dentro dele.
+     */
+    private static long[] load(final List<URI> uris, final Duration duration) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            List<HttpRequest> requests = uris.stream()
+                    .map(uri -> HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build())
+                    .toList();
+            for (int i = 0; i < CLIENTS; i++) {
+                int first = i;
+                clients.execute(() -> {
+                    for (int sent = first; System.nanoTime() < deadline; sent++) {
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(sent % requests.size()),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (System.nanoTime() > deadline) {
+                                break;
+                            }
+                            (response.statusCode() == 200 ? completed : failed).incrementAndGet();
+                        } catch (Exception exception) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+        return new long[] {completed.get(), failed.get()};
+    }
+
+    @Configuration
+    static class BlockingLatency {
+
+        @Bean
+        FilterRegistrationBean<Filter> blockingLatencyFilter() {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                try {
+                    Thread.sleep(LATENCY_MILLIS);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                chain.doFilter(request, response);
+            });
+            registration.addUrlPatterns("/api/items/wishlist");
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.quadrinhos.hq.bancohq.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.config.CacheProperties;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class SearchResultCacheTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @Test
+    void shouldReuseResultForEquivalentFiltersUntilCatalogChanges() {
+        SearchResultCache cache = new SearchResultCache(new CacheProperties(), catalogVersion,
+                new SimpleMeterRegistry());
+        ItemFilter filter = ItemFilter.builder().publisher(" Marvel ").tags(Set.of("Vingadores")).build();
+        ItemFilter equivalent = ItemFilter.builder().publisher("marvel").tags(Set.of("vingadores")).build();
+
+        List<ItemResponse> first = cache.get(filter, () -> search(3));
+        List<ItemResponse> second = cache.get(equivalent, () -> search(3));
+        assertThat(second).isSameAs(first);
+        assertThat(searches).hasValue(1);
+
+        catalogVersion.increment();
+        cache.get(equivalent, () -> search(3));
+        assertThat(searches).hasValue(2);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictByRetainedBytes() {
+        CacheProperties properties = new CacheProperties();
+        properties.getSearch().setMaximumSize(DataSize.ofKilobytes(64));
+        SearchResultCache cache = new SearchResultCache(properties, catalogVersion, new SimpleMeterRegistry());
+
+        for (ItemStatus status : ItemStatus.values()) {
+            cache.get(ItemFilter.builder().status(status).build(), () -> search(200));
+        }
+        cache.cleanUp();
+
+        assertThat(cache.stats().evictionCount()).isPositive();
+        assertThat(cache.retainedBytes()).isLessThanOrEqualTo(DataSize.ofKilobytes(64).toBytes());
+    }
+
+    private List<ItemResponse> search(final int size) {
+        searches.incrementAndGet();
+        return IntStream.range(0, size)
+                .mapToObj(i -> ItemResponse.builder()
+                        .id((long) i)
+                        .title("Vingadores #" + i)
+                        .issueNumber(String.valueOf(i))
+                        .publisher("Marvel")
+                        .status(ItemStatus.OWNED)
+                        .tags(Set.of("vingadores"))
+                        .build())
+                .toList();
+    }
+}
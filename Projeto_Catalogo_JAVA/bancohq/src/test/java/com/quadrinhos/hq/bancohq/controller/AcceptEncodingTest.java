@@ -0,0 +1,22 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AcceptEncodingTest {
+
+    @Test
+    void shouldHonourQualityValuesAndWildcard() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("*")).isTrue();
+
+        assertThat(AcceptEncoding.acceptsGzip(null)).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("identity")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("*;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("x-nogzip")).isFalse();
+    }
+}
@@ -0,0 +1,101 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quadrinhos.hq.bancohq.model.Role;
+import com.quadrinhos.hq.bancohq.model.UserAccount;
+import com.quadrinhos.hq.bancohq.repository.UserAccountRepository;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Test
+    void shouldRehashPasswordWithConfiguredCostOnLogin() throws Exception {
+        userAccountRepository.save(UserAccount.builder()
+                .username("custo-antigo")
+                .password(new BCryptPasswordEncoder(4).encode("segredo123"))
+                .fullName("Custo Antigo")
+                .role(Role.USER)
+                .build());
+
+        login("custo-antigo", "segredo123").andExpect(status().isOk());
+
+        String rehashed = userAccountRepository.findByUsername("custo-antigo").orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("$2a$10$");
+        login("custo-antigo", "segredo123").andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldThrottleRepeatedFailuresForTheSameUsername() throws Exception {
+        userAccountRepository.save(UserAccount.builder()
+                .username("alvo")
+                .password(new BCryptPasswordEncoder(4).encode("segredo123"))
+                .fullName("Alvo")
+                .role(Role.USER)
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            login("alvo", "errada" + i).andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", "ALVO", "password", "segredo123"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void revokeShouldConflictWhileRevocationIsDisabled() throws Exception {
+        userAccountRepository.save(UserAccount.builder()
+                .username("sem-revogacao")
+                .password(new BCryptPasswordEncoder(4).encode("segredo123"))
+                .fullName("Sem Revogação")
+                .role(Role.USER)
+                .build());
+        String response = login("sem-revogacao", "segredo123").andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(response).get("token").asText();
+
+        mockMvc.perform(post("/api/auth/revoke").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isConflict());
+        assertThat(userAccountRepository.findTokenVersionByUsername("sem-revogacao")).contains(0);
+    }
+
+    private ResultActions login(final String username, final String password) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username, "password", password))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
@@ -0,0 +1,126 @@
+package com.quadrinhos.hq.bancohq.controller;
+
+import com.quadrinhos.hq.bancohq.BancoHqApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Vazão do {@link FileController} (sendfile no Tomcat) contra o {@code ResourceHttpRequestHandler} que
+ * servia {@code /files/**} antes, registrado aqui em {@code /baseline/**} sobre o mesmo diretório. Executar
+ * com {@code mvn test -Dbenchmarks=true -Dtest=FileServingBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class FileServingBenchmarkTest {
+
+    private static final Path STORAGE = Path.of("target/uploads");
+    private static final int CLIENTS = 32;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    @Test
+    void compareWithResourceHandler() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BancoHqApplication.class,
+                BaselineResourceHandler.class)
+                .run("--spring.profiles.active=test", "--server.port=0",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.org.hibernate.SQL=warn")) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            for (int size : new int[] {8 * 1024, 256 * 1024, 4 * 1024 * 1024}) {
+                String name = write(size);
+                run(base + "/baseline/" + name, "resource handler", size);
+                run(base + "/files/" + name, "FileController", size);
+            }
+        }
+    }
+
+    private static void run(final String url, final String label, final int size) throws Exception {
+        URI uri = URI.create(url);
+        load(uri, WARMUP);
+        long requests = load(uri, MEASUREMENT);
+        double perSecond = requests / (double) MEASUREMENT.toSeconds();
+        System.out.printf("%-17s %5d KB  %8.0f req/s  %8.1f MB/s%n", label, size / 1024, perSecond,
+                perSecond * size / (1024 * 1024));
+    }
+
+    private static long load(final URI uri, final Duration duration) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).build();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                throw new IllegalStateException("HTTP " + response.statusCode() + " em " + uri);
+                            }
+                            if (System.nanoTime() <= deadline) {
+                                completed.incrementAndGet();
+                            }
+                        } catch (InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (IOException exception) {
+                            throw new IllegalStateException(exception);
+                        }
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+        return completed.get();
+    }
+
+    private static String write(final int size) throws Exception {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        String name = UUID.randomUUID() + ".jpg";
+        Files.createDirectories(STORAGE);
+        Files.write(STORAGE.resolve(name), content);
+        return name;
+    }
+
+    @Configuration
+    static class BaselineResourceHandler implements WebMvcConfigurer {
+
+        @Override
+        public void addResourceHandlers(@NonNull final ResourceHandlerRegistry registry) {
+            registry.addResourceHandler("/baseline/**")
+                    .addResourceLocations(STORAGE.toAbsolutePath().normalize().toUri().toString())
+                    .setCachePeriod(3600);
+        }
+
+        /**
+         * Os dois caminhos ficam fora da cadeia do Spring Security, para comparar só os handlers.
+         */
+        @Bean
+        WebSecurityCustomizer withoutSecurityFilters() {
+            return web -> web.ignoring().requestMatchers("/baseline/**", "/files/**");
+        }
+    }
+}
@@ -1,30 +1,68 @@
 package com.quadrinhos.hq.bancohq.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quadrinhos.hq.bancohq.cache.ItemCache;
 import com.quadrinhos.hq.bancohq.dto.ItemRequest;
 import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
 import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import javax.imageio.ImageIO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
 class ItemControllerIntegrationTest {
 
     @Autowired
@@ -33,6 +71,9 @@ class ItemControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ItemCache itemCache;
+
     @Autowired
     private ItemRepository itemRepository;
 
@@ -63,6 +104,305 @@ class ItemControllerIntegrationTest {
                 .andExpect(jsonPath("$.title").value("Sample Item"));
     }
 
+    @Test
+    void shouldServeItemFromCacheAndInvalidateAfterWrites() throws Exception {
+        String created = mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildRequest())))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        long hits = itemCache.stats().hitCount();
+        mockMvc.perform(get("/api/items/" + id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/items/" + id)).andExpect(status().isOk());
+        assertThat(itemCache.stats().hitCount()).isEqualTo(hits + 1);
+
+        mockMvc.perform(patch("/api/items/" + id + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"WISHLIST\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WISHLIST"));
+
+        mockMvc.perform(delete("/api/items/" + id)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/items/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldAnswerConditionalReadsWithNotModifiedUntilTheItemChanges() throws Exception {
+        String created = mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildRequest())))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/items/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn()
+                .getResponse();
+        String itemEtag = first.getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/items/" + id).header(HttpHeaders.IF_NONE_MATCH, itemEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String listEtag = mockMvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/items").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/api/items/" + id + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"WISHLIST\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items/" + id).header(HttpHeaders.IF_NONE_MATCH, itemEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(itemEtag)))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(get("/api/items").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(listEtag)));
+    }
+
+    @Test
+    void shouldStoreIdenticalCoversOnceAndKeepThemUntilTheLastReference() throws Exception {
+        byte[] cover = new byte[4096];
+        new Random(21).nextBytes(cover);
+        JsonNode first = createWithCover(new MockMultipartFile("cover", "capa.PNG", "image/png", cover));
+        JsonNode second = createWithCover(new MockMultipartFile("cover", "variante.png", "image/png", cover));
+
+        String imageUrl = first.get("imageUrl").asText();
+        assertThat(imageUrl).matches("/files/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.png");
+        assertThat(second.get("imageUrl").asText()).isEqualTo(imageUrl);
+        mockMvc.perform(get(imageUrl)).andExpect(status().isOk()).andExpect(content().bytes(cover));
+
+        MockMultipartFile item = new MockMultipartFile("item", "", MediaType.APPLICATION_JSON_VALUE,
+                objectMapper.writeValueAsBytes(buildRequest()));
+        mockMvc.perform(multipart("/api/items/" + first.get("id").asLong())
+                .file(item)
+                .file(new MockMultipartFile("cover", "capa.png", "image/png", cover))
+                .with(request -> {
+                    request.setMethod("PUT");
+                    return request;
+                }))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrl").value(imageUrl));
+
+        mockMvc.perform(delete("/api/items/" + first.get("id").asLong())).andExpect(status().isNoContent());
+        mockMvc.perform(get(imageUrl)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/items/" + second.get("id").asLong())).andExpect(status().isNoContent());
+        mockMvc.perform(get(imageUrl)).andExpect(status().isNotFound());
+
+        Path legacy = Path.of("target/uploads", UUID.randomUUID() + ".png");
+        Files.write(legacy, cover);
+        mockMvc.perform(get("/files/" + legacy.getFileName())).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldServeProgressiveThumbnailsForUploadedAndLegacyCovers() throws Exception {
+        JsonNode created = createWithCover(new MockMultipartFile("cover", "capa.png", "image/png", png(800, 1200)));
+        String source = created.get("imageUrl").asText().substring("/files/".length());
+        assertThat(created.get("imageSrcset").asText()).isEqualTo("/files/renditions/160/" + source + ".jpg 160w, "
+                + "/files/renditions/320/" + source + ".jpg 320w, /files/renditions/640/" + source + ".jpg 640w");
+
+        MockHttpServletResponse thumbnail = fetch(created.get("imageRenditions").get("160").asText());
+        assertThat(thumbnail.getStatus()).isEqualTo(200);
+        assertThat(thumbnail.getContentType()).isEqualTo(MediaType.IMAGE_JPEG_VALUE);
+        assertThat(thumbnail.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+        assertThat(isProgressiveJpeg(thumbnail.getContentAsByteArray())).isTrue();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.getContentAsByteArray()));
+        assertThat(image.getWidth()).isEqualTo(160);
+        assertThat(image.getHeight()).isEqualTo(240);
+
+        Path legacy = Path.of("target/uploads", UUID.randomUUID() + ".png");
+        Files.write(legacy, png(200, 300));
+        BufferedImage notUpscaled = ImageIO.read(new ByteArrayInputStream(
+                fetch("/files/renditions/640/" + legacy.getFileName() + ".jpg").getContentAsByteArray()));
+        assertThat(notUpscaled.getWidth()).isEqualTo(200);
+
+        Path unreadable = Path.of("target/uploads", UUID.randomUUID() + ".png");
+        Files.write(unreadable, new byte[] {1, 2, 3});
+        MockHttpServletResponse fallback = fetch("/files/renditions/320/" + unreadable.getFileName() + ".jpg");
+        assertThat(fallback.getStatus()).isEqualTo(307);
+        assertThat(fallback.getHeader(HttpHeaders.LOCATION)).isEqualTo("/files/" + unreadable.getFileName());
+        assertThat(fetch("/files/renditions/100/" + legacy.getFileName() + ".jpg").getStatus()).isEqualTo(404);
+        Path temporary = Files.createDirectories(Path.of("target/uploads/.tmp")).resolve(UUID.randomUUID() + ".png");
+        Files.write(temporary, png(200, 300));
+        assertThat(fetch("/files/renditions/160/.tmp/" + temporary.getFileName() + ".jpg").getStatus())
+                .isEqualTo(404);
+        assertThat(Path.of("target/uploads/renditions/160/.tmp", temporary.getFileName() + ".jpg")).doesNotExist();
+
+        mockMvc.perform(delete("/api/items/" + created.get("id").asLong())).andExpect(status().isNoContent());
+        assertThat(Path.of("target/uploads/renditions/160", source + ".jpg")).doesNotExist();
+    }
+
+    @Test
+    void shouldComputeImagePreviewOnUploadAndBackfillOlderCovers() throws Exception {
+        JsonNode uploaded = createWithCover(new MockMultipartFile("cover", "capa.png", "image/png", png(640, 960)));
+        JsonNode preview = uploaded.get("imagePreview");
+        assertThat(preview.get("width").asInt()).isEqualTo(640);
+        assertThat(preview.get("height").asInt()).isEqualTo(960);
+        assertThat(preview.get("dominantColor").asText()).matches("#[0-9a-f]{6}");
+        assertThat(preview.get("blurHash").asText()).hasSize(28);
+
+        Path legacy = Path.of("target/uploads", UUID.randomUUID() + ".png");
+        Files.write(legacy, png(200, 300));
+        Item older = itemRepository.save(Item.builder()
+                .title("Capa antiga")
+                .issueNumber("1")
+                .publisher("Panini")
+                .imageUrl("/files/" + legacy.getFileName())
+                .status(ItemStatus.OWNED)
+                .build());
+        Item missing = itemRepository.save(Item.builder()
+                .title("Capa perdida")
+                .issueNumber("2")
+                .publisher("Panini")
+                .imageUrl("/files/" + UUID.randomUUID() + ".png")
+                .status(ItemStatus.OWNED)
+                .build());
+        assertThat(readItem(older.getId()).get("imagePreview").isNull()).isTrue();
+
+        String accepted = mockMvc.perform(post("/api/items/image-previews/backfill"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        JsonNode backfill = awaitBackfill(objectMapper.readTree(accepted).get("id").asText());
+        assertThat(backfill.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(backfill.get("images").asLong()).isEqualTo(2);
+        assertThat(backfill.get("itemsUpdated").asLong()).isEqualTo(1);
+        assertThat(backfill.get("unreadable").asLong()).isEqualTo(1);
+        mockMvc.perform(get("/api/items/image-previews/backfill/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        assertThat(readItem(older.getId()).get("imagePreview").get("width").asInt()).isEqualTo(200);
+        assertThat(readItem(missing.getId()).get("imagePreview").isNull()).isTrue();
+    }
+
+    @Test
+    void shouldServeFilesWithValidatorsRangesAndPrecompressedVariants() throws Exception {
+        byte[] svg = ("<svg xmlns=\"http://www.w3.org/2000/svg\">"
+                + "<rect width=\"10\" height=\"10\" fill=\"#c0ffee\"/>".repeat(200) + "</svg>")
+                .getBytes(StandardCharsets.UTF_8);
+        String imageUrl = createWithCover(new MockMultipartFile("cover", "capa.svg", "image/svg+xml", svg))
+                .get("imageUrl").asText();
+        String hash = imageUrl.substring(imageUrl.lastIndexOf('/') + 1, imageUrl.lastIndexOf('.'));
+        String etag = "\"" + hash + "\"";
+
+        mockMvc.perform(get(imageUrl))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(content().contentType("image/svg+xml"))
+                .andExpect(content().bytes(svg));
+        mockMvc.perform(get(imageUrl).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get(imageUrl).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + svg.length))
+                .andExpect(content().bytes(Arrays.copyOfRange(svg, 10, 20)));
+        mockMvc.perform(get(imageUrl).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(svg, svg.length - 5, svg.length)));
+        mockMvc.perform(get(imageUrl).header(HttpHeaders.RANGE, "bytes=" + svg.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + svg.length));
+        mockMvc.perform(get(imageUrl).header(HttpHeaders.RANGE, "bytes=10-19").header(HttpHeaders.IF_RANGE, "\"x\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(svg));
+
+        MockHttpServletResponse compressed = mockMvc.perform(get(imageUrl)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "-gz\""))
+                .andReturn()
+                .getResponse();
+        assertThat(compressed.getContentAsByteArray().length).isLessThan(svg.length / 10);
+        try (GZIPInputStream input = new GZIPInputStream(
+                new ByteArrayInputStream(compressed.getContentAsByteArray()))) {
+            assertThat(input.readAllBytes()).isEqualTo(svg);
+        }
+
+        mockMvc.perform(get("/files/" + UUID.randomUUID() + ".png")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/files/.tmp/x.png")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldAssembleChunkedCoverUploadInAnyOrderAndAttachItToItem() throws Exception {
+        byte[] cover = png(400, 600);
+        JsonNode session = createUpload("scan.png", cover.length, sha256(cover));
+        String uploadUrl = "/api/cover-uploads/" + session.get("id").asText();
+        int chunkSize = session.get("chunkSize").asInt();
+        int chunkCount = session.get("chunkCount").asInt();
+        assertThat(chunkCount).isGreaterThanOrEqualTo(3);
+
+        putChunk(uploadUrl, chunkCount - 1, Arrays.copyOfRange(cover, (chunkCount - 1) * chunkSize, cover.length))
+                .andExpect(status().isOk());
+        putChunk(uploadUrl, 0, Arrays.copyOfRange(cover, 0, chunkSize))
+                .andExpect(status().isOk());
+        putChunk(uploadUrl, 1, new byte[chunkSize + 1])
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(uploadUrl))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedChunks[0].first").value(0))
+                .andExpect(jsonPath("$.receivedChunks[0].last").value(0))
+                .andExpect(jsonPath("$.receivedChunks[1].first").value(chunkCount - 1))
+                .andExpect(jsonPath("$.complete").value(false));
+        mockMvc.perform(get(uploadUrl).with(user("outro").roles("USER")))
+                .andExpect(status().isNotFound());
+
+        ItemRequest request = buildRequest();
+        request.setImageUrl(null);
+        request.setCoverUploadId(session.get("id").asText());
+        mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        for (int index = 1; index < chunkCount - 1; index++) {
+            putChunk(uploadUrl, index, Arrays.copyOfRange(cover, index * chunkSize, (index + 1) * chunkSize))
+                    .andExpect(status().isOk());
+        }
+        String created = mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imagePreview.width").value(400))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String imageUrl = objectMapper.readTree(created).get("imageUrl").asText();
+        assertThat(imageUrl).endsWith("/" + sha256(cover) + ".png");
+        assertThat(fetch(imageUrl).getContentAsByteArray()).isEqualTo(cover);
+        mockMvc.perform(get(uploadUrl)).andExpect(status().isNotFound());
+
+        String corrupted = "/api/cover-uploads/" + createUpload("scan.png", 3, "0".repeat(64)).get("id").asText();
+        putChunk(corrupted, 0, new byte[] {1, 2, 3}).andExpect(status().isOk());
+        request.setCoverUploadId(corrupted.substring(corrupted.lastIndexOf('/') + 1));
+        mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(corrupted)).andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldUpdateItem() throws Exception {
         Item saved = itemRepository.save(Item.builder()
@@ -90,6 +430,368 @@ class ItemControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldWalkPagesForwardAndBackwardWithCursors() throws Exception {
+        for (String title : List.of("Delta", "Alpha", "Echo", "Charlie", "Bravo")) {
+            itemRepository.save(Item.builder()
+                    .title(title)
+                    .issueNumber("1")
+                    .publisher("Publisher")
+                    .status(com.quadrinhos.hq.bancohq.model.ItemStatus.OWNED)
+                    .build());
+        }
+
+        List<String> forward = new ArrayList<>();
+        String cursor = null;
+        String lastPrev = null;
+        do {
+            JsonNode page = readPage(cursor);
+            page.get("data").forEach(item -> forward.add(item.get("title").asText()));
+            assertThat(page.get("totalElements").asLong()).isEqualTo(5);
+            lastPrev = page.get("prevCursor").isNull() ? lastPrev : page.get("prevCursor").asText();
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(forward).containsExactly("Alpha", "Bravo", "Charlie", "Delta", "Echo");
+
+        JsonNode previous = readPage(lastPrev);
+        assertThat(previous.get("data")).extracting(item -> item.get("title").asText())
+                .containsExactly("Charlie", "Delta");
+        assertThat(previous.get("links").get("next").asText()).contains("cursor=");
+    }
+
+    @Test
+    void shouldStreamItemsAsNdjsonAndJsonArray() throws Exception {
+        for (String title : List.of("Alpha", "Bravo", "Charlie")) {
+            ItemRequest request = buildRequest();
+            request.setTitle(title);
+            request.setStatus(title.equals("Bravo")
+                    ? com.quadrinhos.hq.bancohq.model.ItemStatus.WISHLIST
+                    : com.quadrinhos.hq.bancohq.model.ItemStatus.OWNED);
+            mockMvc.perform(post("/api/items")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        String ndjson = readStream(get("/api/items").accept(MediaType.APPLICATION_NDJSON));
+        assertThat(ndjson.lines().map(line -> readTitle(line)).toList())
+                .containsExactly("Alpha", "Bravo", "Charlie");
+
+        String array = readStream(get("/api/items").param("stream", "true").param("status", "OWNED"));
+        assertThat(objectMapper.readTree(array)).extracting(item -> item.get("title").asText())
+                .containsExactly("Alpha", "Charlie");
+    }
+
+    @Test
+    void shouldApplyTheLongAsyncTimeoutOnlyToStreamingResponses() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/items").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(stream.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        mockMvc.perform(asyncDispatch(stream)).andExpect(status().isOk());
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", "ninguem", "password", "segredo123"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(login.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofSeconds(30).toMillis());
+        mockMvc.perform(asyncDispatch(login));
+    }
+
+    @Test
+    void shouldUpsertCsvByNaturalKeyAndSkipUnchangedRows() throws Exception {
+        ItemRequest existing = buildRequest();
+        existing.setTitle("Título antigo");
+        existing.setSeries("Homem-Aranha");
+        existing.setPublisher("Panini");
+        mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(existing)))
+                .andExpect(status().isCreated());
+
+        String csv = "title,series,issueNumber,publisher,status,tags\n"
+                + "Título novo,homem-aranha , 1,PANINI,OWNED,marvel\n"
+                + "Segunda edição,Homem-Aranha,2,Panini,WISHLIST,\n"
+                + "Segunda edição,Homem-Aranha,2,Panini,WISHLIST,\n";
+
+        JsonNode first = awaitImport(submitImport(csv, "upsert"));
+        assertThat(first.get("mode").asText()).isEqualTo("UPSERT");
+        assertThat(first.get("inserted").asLong()).isEqualTo(1);
+        assertThat(first.get("updated").asLong()).isEqualTo(1);
+        assertThat(first.get("skipped").asLong()).isEqualTo(1);
+        assertThat(itemRepository.count()).isEqualTo(2);
+        assertThat(itemRepository.findAll()).extracting(Item::getTitle)
+                .containsExactlyInAnyOrder("Título novo", "Segunda edição");
+
+        JsonNode second = awaitImport(submitImport(csv, "UPSERT"));
+        assertThat(second.get("inserted").asLong()).isZero();
+        assertThat(second.get("updated").asLong()).isZero();
+        assertThat(second.get("skipped").asLong()).isEqualTo(3);
+        assertThat(itemRepository.count()).isEqualTo(2);
+
+        mockMvc.perform(multipart("/api/items/import")
+                .file(new MockMultipartFile("file", "itens.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                .param("mode", "merge"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportFilteredItemsAsReimportableCsv() throws Exception {
+        for (String title : List.of("Alpha", "Bravo")) {
+            ItemRequest request = buildRequest();
+            request.setTitle(title);
+            request.setDescription("Capa \"variante\", 1ª edição");
+            request.setTags(Set.of("marvel"));
+            request.setStatus(title.equals("Bravo")
+                    ? com.quadrinhos.hq.bancohq.model.ItemStatus.WISHLIST
+                    : com.quadrinhos.hq.bancohq.model.ItemStatus.OWNED);
+            mockMvc.perform(post("/api/items")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        String csv = new String(readStreamBytes(get("/api/items/export.csv").param("status", "OWNED")),
+                StandardCharsets.UTF_8);
+        assertThat(csv.lines()).containsExactly(
+                "title,series,issueNumber,publisher,language,condition,location,description,imageUrl,status,tags",
+                "Alpha,Sample Series,1,Publisher,Portuguese,Very Fine,Shelf A,\"Capa \"\"variante\"\", 1ª edição\","
+                        + "http://example.com/image.jpg,OWNED,marvel");
+
+        byte[] compressed = readStreamBytes(get("/api/items/export.csv").header("Accept-Encoding", "gzip, deflate"));
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8).lines()).hasSize(3);
+        }
+    }
+
+    @Test
+    void shouldImportCsvAsBackgroundJobAndReportRejectedRows() throws Exception {
+        StringBuilder csv = new StringBuilder("title,issueNumber,publisher,status,tags\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append("Importado ").append(i).append(',').append(i).append(",Editora,OWNED,\"lote,csv\"\n");
+        }
+        csv.append("Sem editora,1,,OWNED,\n");
+        csv.append("Status errado,2,Editora,EMPRESTADO,\n");
+        MockMultipartFile file = new MockMultipartFile("file", "itens.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        String body = mockMvc.perform(multipart("/api/items/import").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String jobId = objectMapper.readTree(body).get("id").asText();
+
+        JsonNode job = awaitImport(jobId);
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("parsed").asLong()).isEqualTo(1202);
+        assertThat(job.get("inserted").asLong()).isEqualTo(1200);
+        assertThat(job.get("rejected").asLong()).isEqualTo(2);
+        assertThat(job.get("rowsPerSecond").asDouble()).isPositive();
+        assertThat(itemRepository.count()).isEqualTo(1200);
+
+        String report = mockMvc.perform(get(job.get("rejectedReportUrl").asText()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(report.lines()).hasSize(3);
+        assertThat(report.lines().skip(1)).anySatisfy(line -> assertThat(line).startsWith("1202,publisher"))
+                .anySatisfy(line -> assertThat(line).startsWith("1203,Status inválido"));
+
+        JsonNode found = awaitSearch("importado 1199");
+        assertThat(found.get(0).get("tags")).hasSize(2);
+        mockMvc.perform(get("/api/items/import/desconhecido"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Itens importados entram no índice de busca de forma assíncrona, logo após cada lote.
+     */
+    private JsonNode awaitSearch(final String term) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/items").param("term", term))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            JsonNode items = objectMapper.readTree(body);
+            if (!items.isEmpty()) {
+                return items;
+            }
+            assertThat(System.currentTimeMillis()).as("busca por %s sem resultado", term).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private String submitImport(final String csv, final String mode) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "itens.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+        String body = mockMvc.perform(multipart("/api/items/import").file(file).param("mode", mode))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private JsonNode awaitImport(final String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/items/import/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            JsonNode job = objectMapper.readTree(body);
+            String state = job.get("status").asText();
+            if (!state.equals("QUEUED") && !state.equals("RUNNING")) {
+                return job;
+            }
+            assertThat(System.currentTimeMillis()).as("importação %s não terminou", jobId).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private JsonNode awaitBackfill(final String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get("/api/items/image-previews/backfill/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString());
+            if (!job.get("status").asText().equals("RUNNING")) {
+                return job;
+            }
+            assertThat(System.currentTimeMillis()).as("preenchimento %s não terminou", jobId).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private String readStream(final MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private byte[] readStreamBytes(final MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+
+    private String readTitle(final String json) {
+        try {
+            return objectMapper.readTree(json).get("title").asText();
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private JsonNode readPage(final String cursor) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/items")
+                .param("size", "2")
+                .param("sort", "title,asc")
+                .param("includeTotal", "true");
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode readItem(final Long id) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/items/" + id))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    }
+
+    private MockHttpServletResponse fetch(final String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+        }
+        return result.getResponse();
+    }
+
+    private JsonNode createUpload(final String fileName, final long size, final String sha256) throws Exception {
+        String body = mockMvc.perform(post("/api/cover-uploads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        Map.of("fileName", fileName, "size", size, "sha256", sha256))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private ResultActions putChunk(final String uploadUrl, final int index, final byte[] content) throws Exception {
+        return mockMvc.perform(put(uploadUrl + "/chunks/" + index)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(content));
+    }
+
+    private static String sha256(final byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static byte[] png(final int width, final int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    /**
+     * JPEG progressivo usa o marcador SOF2 (FF C2) em vez do SOF0 (FF C0) do sequencial.
+     */
+    private static boolean isProgressiveJpeg(final byte[] jpeg) {
+        for (int i = 0; i + 1 < jpeg.length; i++) {
+            if ((jpeg[i] & 0xFF) == 0xFF && (jpeg[i + 1] & 0xFF) == 0xC2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JsonNode createWithCover(final MockMultipartFile cover) throws Exception {
+        MockMultipartFile item = new MockMultipartFile("item", "", MediaType.APPLICATION_JSON_VALUE,
+                objectMapper.writeValueAsBytes(buildRequest()));
+        String body = mockMvc.perform(multipart("/api/items").file(item).file(cover))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
     private ItemRequest buildRequest() {
         ItemRequest request = new ItemRequest();
         request.setTitle("Sample Item");
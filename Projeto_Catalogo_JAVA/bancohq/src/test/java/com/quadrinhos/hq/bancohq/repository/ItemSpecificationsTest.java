@@ -0,0 +1,139 @@
+package com.quadrinhos.hq.bancohq.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse.FacetCount;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.service.impl.ItemFilterMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSpecificationsTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        itemRepository.saveAll(List.of(
+                item("Homem-Aranha: Coleção Definitiva", "Homem-Aranha", "Marvel", "Estante A",
+                        ItemStatus.OWNED, "marvel", "Spider-Man", "coleção"),
+                item("Batman: Ano Um", "Batman", "DC Comics", "Estante B",
+                        ItemStatus.WISHLIST, "dc", "frank miller"),
+                item("Batman: O Longo Dia das Bruxas", "Batman", "DC Comics", null,
+                        ItemStatus.OWNED, "DC", " Noir "),
+                item("Sandman 100% Vertigo", null, "Vertigo", "Caixa_1",
+                        ItemStatus.LENT),
+                item("X-Men", "X-Men", "MARVEL", "Estante A",
+                        ItemStatus.ORDERED, "marvel")));
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    void shouldReturnSameResultsAsInMemoryMatcher() {
+        List<ItemFilter> filters = List.of(
+                ItemFilter.builder().build(),
+                ItemFilter.builder().term("batman").build(),
+                ItemFilter.builder().term("  ESTANTE a ").build(),
+                ItemFilter.builder().term("spider").build(),
+                ItemFilter.builder().term("100%").build(),
+                ItemFilter.builder().term("_").build(),
+                ItemFilter.builder().term(" ").build(),
+                ItemFilter.builder().publisher("marvel").build(),
+                ItemFilter.builder().publisher("comics").status(ItemStatus.OWNED).build(),
+                ItemFilter.builder().series("").build(),
+                ItemFilter.builder().series("bat").build(),
+                ItemFilter.builder().status(ItemStatus.WISHLIST).build(),
+                ItemFilter.builder().tags(Set.of("MARVEL")).build(),
+                ItemFilter.builder().tags(Set.of("dc", "noir")).build(),
+                ItemFilter.builder().tags(new LinkedHashSet<>(List.of("marvel", "coleção"))).build(),
+                ItemFilter.builder().tags(Set.of("marvel", "dc")).build(),
+                ItemFilter.builder().term("x").publisher("marvel").tags(Set.of("marvel")).build());
+
+        List<Item> catalog = itemRepository.findAll();
+        for (ItemFilter filter : filters) {
+            Set<Long> expected = catalog.stream()
+                    .filter(item -> ItemFilterMatcher.matches(item, filter))
+                    .map(Item::getId)
+                    .collect(Collectors.toSet());
+            Set<Long> actual = itemRepository.findAll(ItemSpecifications.matching(filter)).stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toSet());
+
+            assertThat(actual).as("filtro term=%s publisher=%s series=%s status=%s tags=%s",
+                    filter.getTerm(), filter.getPublisher(), filter.getSeries(), filter.getStatus(),
+                    filter.getTags()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldRequireAllTags() {
+        ItemFilter filter = ItemFilter.builder().tags(Set.of("marvel", "spider-man")).build();
+
+        List<Item> result = itemRepository.findAll(ItemSpecifications.matching(filter));
+
+        assertThat(result).extracting(Item::getTitle).containsExactly("Homem-Aranha: Coleção Definitiva");
+    }
+
+    @Test
+    void shouldCountFacetsWithAggregateQueries() {
+        Specification<Item> termA = ItemSpecifications.matching(ItemFilter.builder().term("a").build());
+
+        assertThat(itemRepository.countBy("publisher", ItemSpecifications.matching(null))).containsExactly(
+                new FacetCount("DC Comics", 2), new FacetCount("MARVEL", 2), new FacetCount("Vertigo", 1));
+        assertThat(itemRepository.countBy("series", ItemSpecifications.hasStatus(ItemStatus.OWNED)))
+                .containsExactly(new FacetCount("Batman", 1), new FacetCount("Homem-Aranha", 1));
+        assertThat(itemRepository.countBy("status", ItemSpecifications.fieldContains("publisher", "comics")))
+                .containsExactlyInAnyOrder(new FacetCount("OWNED", 1), new FacetCount("WISHLIST", 1));
+        assertThat(itemRepository.countTags(termA, 2))
+                .containsExactly(new FacetCount("dc", 2), new FacetCount("marvel", 2));
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    void shouldScrollInIdOrderAcrossPagesWithTags() {
+        List<Item> scrolled = new ArrayList<>();
+        itemRepository.scrollAll(ItemSpecifications.hasStatus(ItemStatus.OWNED), 1, item -> {
+            item.getTags().size();
+            scrolled.add(item);
+        });
+        assertThat(scrolled).extracting(Item::getTitle)
+                .containsExactly("Homem-Aranha: Coleção Definitiva", "Batman: O Longo Dia das Bruxas");
+
+        List<Item> catalog = new ArrayList<>();
+        itemRepository.scrollAllWithTags(2, catalog::add);
+        assertThat(catalog).extracting(Item::getTitle).containsExactly("Homem-Aranha: Coleção Definitiva",
+                "Batman: Ano Um", "Batman: O Longo Dia das Bruxas", "Sandman 100% Vertigo", "X-Men");
+        assertThat(catalog.get(1).getTags()).containsExactlyInAnyOrder("dc", "frank miller");
+        assertThat(catalog.get(3).getTags()).isEmpty();
+        assertThat(catalog.get(4).getTags()).containsExactly("marvel");
+    }
+
+    private Item item(final String title, final String series, final String publisher, final String location,
+            final ItemStatus status, final String... tags) {
+        return Item.builder()
+                .title(title)
+                .series(series)
+                .issueNumber("1")
+                .publisher(publisher)
+                .location(location)
+                .status(status)
+                .tags(new LinkedHashSet<>(List.of(tags)))
+                .build();
+    }
+}
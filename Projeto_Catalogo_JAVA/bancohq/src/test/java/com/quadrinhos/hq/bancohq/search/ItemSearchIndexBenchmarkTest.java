@@ -0,0 +1,108 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.cache.CatalogVersion;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.mapper.ItemMapper;
+import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.service.impl.ItemFilterMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compara a varredura linear de {@link ItemFilterMatcher} com o índice de trigramas, que cobre os mesmos
+ * campos.
+ * Executar com {@code mvn test -Dbenchmarks=true -Dtest=ItemSearchIndexBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ItemSearchIndexBenchmarkTest {
+
+    private static final int CATALOG_SIZE = 200_000;
+    private static final int ROUNDS = 20;
+    private static final List<String> QUERIES = List.of("aranh", "ano u", "man: o", "terra um 42", "panini", "xyz");
+
+    @Test
+    void compareLinearScanWithTrigramIndex() {
+        List<Item> catalog = generateCatalog();
+        ItemMapper mapper = new ItemMapper();
+        List<ItemResponse> responses = new ArrayList<>(catalog.size());
+        catalog.forEach(item -> responses.add(mapper.toResponse(item)));
+
+        ItemSearchIndex index = new ItemSearchIndex(null, mapper, new CatalogVersion());
+        index.load(responses);
+
+        for (String query : QUERIES) {
+            ItemFilter filter = ItemFilter.builder().term(query).build();
+            long linearMatches = 0;
+            long linearStart = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                linearMatches = catalog.stream().filter(item -> ItemFilterMatcher.matches(item, filter)).count();
+            }
+            long linearNanos = (System.nanoTime() - linearStart) / ROUNDS;
+
+            long[] indexed = null;
+            long indexStart = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                indexed = index.searchTerm(query);
+            }
+            long indexNanos = (System.nanoTime() - indexStart) / ROUNDS;
+
+            assertThat(indexed).hasSize((int) linearMatches);
+            System.out.printf("%-12s matches=%6d  linear=%8.2f ms  trigram=%7.3f ms  speed-up=%6.1fx%n", query,
+                    linearMatches, linearNanos / 1e6, indexNanos / 1e6, (double) linearNanos / indexNanos);
+        }
+    }
+
+    /**
+     * Custo de publicar a alteração de um único item sobre o catálogo inteiro.
+     */
+    @Test
+    void measureSingleItemWrite() {
+        List<Item> catalog = generateCatalog();
+        ItemMapper mapper = new ItemMapper();
+        List<ItemResponse> responses = new ArrayList<>(catalog.size());
+        catalog.forEach(item -> responses.add(mapper.toResponse(item)));
+        ItemSearchIndex index = new ItemSearchIndex(null, mapper, new CatalogVersion());
+        index.load(responses);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            index.apply(List.of(responses.get(round)), List.of());
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS * 5; round++) {
+            index.apply(List.of(responses.get(round)), List.of());
+        }
+        System.out.printf("single item write=%8.3f ms%n", (System.nanoTime() - start) / (ROUNDS * 5) / 1e6);
+        assertThat(index.size()).isEqualTo(CATALOG_SIZE);
+    }
+
+    private static List<Item> generateCatalog() {
+        String[] series = {"Homem-Aranha", "Batman", "Superman", "Lendas do Universo", "Turma da Mônica",
+            "Sandman", "X-Men", "Liga da Justiça", "Vingadores", "Monstro do Pântano"};
+        String[] subtitles = {"Ano Um", "O Longo Dia das Bruxas", "Coleção Definitiva", "A Piada Mortal",
+            "Renascimento", "Guerra Civil", "Crise Final", "Terra Um", "Edição Especial", "Origens"};
+        Random random = new Random(42);
+        List<Item> catalog = new ArrayList<>(CATALOG_SIZE);
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            String serie = series[random.nextInt(series.length)];
+            catalog.add(Item.builder()
+                    .id(id)
+                    .title(serie + ": " + subtitles[random.nextInt(subtitles.length)] + " " + random.nextInt(500))
+                    .series(serie)
+                    .issueNumber(String.valueOf(random.nextInt(500)))
+                    .publisher(random.nextBoolean() ? "Panini" : "DC Comics")
+                    .description("Edição " + id)
+                    .status(ItemStatus.OWNED)
+                    .tags(new LinkedHashSet<>(List.of("tag" + random.nextInt(50))))
+                    .build());
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,153 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+import com.quadrinhos.hq.bancohq.cache.CatalogVersion;
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemFacetsResponse.FacetCount;
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.mapper.ItemMapper;
+import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ItemSearchIndex(itemRepository, new ItemMapper(), new CatalogVersion());
+        doAnswer(invocation -> {
+            Consumer<Item> action = invocation.getArgument(1);
+            List.of(item(1L, "Homem-Aranha: Coleção Definitiva", "Homem-Aranha", "Marvel", "marvel", "coleção"),
+                    item(2L, "Batman: Ano Um", "Batman", "DC Comics", "dc"),
+                    item(3L, "Turma da Mônica", null, "Panini", "nacional")).forEach(action);
+            return null;
+        }).when(itemRepository).scrollAllWithTags(anyInt(), any());
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void shouldIgnoreAccentsAndCase() {
+        assertThat(searchIndex.searchTerm("colecao")).containsExactly(1L);
+        assertThat(searchIndex.searchTerm("MONICA")).containsExactly(3L);
+    }
+
+    @Test
+    void shouldMatchFragmentsOfAnySearchedField() {
+        assertThat(searchIndex.searchTerm("ranh")).containsExactly(1L);
+        assertThat(searchIndex.searchTerm("ano u")).containsExactly(2L);
+        assertThat(searchIndex.searchTerm("a: c")).containsExactly(1L);
+        assertThat(searchIndex.searchTerm("arvel")).containsExactly(1L);
+        assertThat(searchIndex.searchTerm("comics")).containsExactly(2L);
+        assertThat(searchIndex.searchTerm("nacion")).containsExactly(3L);
+    }
+
+    @Test
+    void shouldNotMatchAcrossFieldBoundaries() {
+        assertThat(searchIndex.searchTerm("aranha marvel")).isEmpty();
+        assertThat(searchIndex.searchTerm("aranha dc")).isEmpty();
+    }
+
+    @Test
+    void shouldResolveFiltersAsBitmapIntersections() {
+        assertThat(searchIndex.resolve(ItemFilter.builder().publisher("comics").build()).toArray())
+                .containsExactly(2L);
+        assertThat(searchIndex.resolve(ItemFilter.builder().tags(Set.of("MARVEL", "Coleção")).build()).toArray())
+                .containsExactly(1L);
+        assertThat(searchIndex.resolve(ItemFilter.builder().status(ItemStatus.OWNED).series("a").build())
+                .toArray()).containsExactly(1L, 2L);
+        assertThat(searchIndex.resolve(ItemFilter.builder().term("batman").status(ItemStatus.WISHLIST).build())
+                .isEmpty()).isTrue();
+        assertThat(searchIndex.footprint().bitmapBytes()).isPositive();
+    }
+
+    @Test
+    void shouldCountFacetsWithinFilteredResult() {
+        ItemFacetsResponse all = searchIndex.facets(ItemFilter.builder().build(), 2);
+        assertThat(all.getTotal()).isEqualTo(3);
+        assertThat(all.getPublishers()).containsExactly(new FacetCount("DC Comics", 1), new FacetCount("Marvel", 1),
+                new FacetCount("Panini", 1));
+        assertThat(all.getStatuses()).containsExactly(new FacetCount("OWNED", 3));
+        assertThat(all.getTags()).hasSize(2);
+
+        ItemFacetsResponse filtered = searchIndex.facets(ItemFilter.builder().series("a").build(), 10);
+        assertThat(filtered.getTotal()).isEqualTo(2);
+        assertThat(filtered.getSeries()).containsExactly(new FacetCount("Batman", 1),
+                new FacetCount("Homem-Aranha", 1));
+        assertThat(filtered.getTags()).extracting(FacetCount::value).containsExactly("coleção", "dc", "marvel");
+    }
+
+    @Test
+    void shouldFallBackWhenTermIsShorterThanATrigram() {
+        assertThat(searchIndex.searchTerm("")).isNull();
+        assertThat(searchIndex.searchTerm("ma")).isNull();
+        assertThat(searchIndex.resolve(ItemFilter.builder().term("ma").build())).isNull();
+    }
+
+    @Test
+    void shouldApplyUpdatesAndDeletes() {
+        searchIndex.apply(List.of(response(2L, "Batman: O Longo Dia das Bruxas"),
+                response(4L, "Cavaleiro das Trevas")), List.of(1L));
+
+        assertThat(searchIndex.searchTerm("ano")).isEmpty();
+        assertThat(searchIndex.searchTerm("das")).containsExactly(2L, 4L);
+        assertThat(searchIndex.searchTerm("colecao")).isEmpty();
+        assertThat(searchIndex.resolve(ItemFilter.builder().tags(Set.of("marvel")).build()).isEmpty()).isTrue();
+        assertThat(searchIndex.resolve(ItemFilter.builder().publisher("dc").build()).toArray())
+                .containsExactly(2L, 4L);
+        assertThat(searchIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepOnlyTheLastVersionOfAnItemChangedTwiceInOneBatch() {
+        searchIndex.apply(List.of(response(2L, "Batman: Cavaleiro das Trevas"), response(2L, "Batman: Ano Um")),
+                List.of());
+
+        assertThat(searchIndex.searchTerm("cavaleiro")).isEmpty();
+        assertThat(searchIndex.searchTerm("ano um")).containsExactly(2L);
+        assertThat(searchIndex.searchTerm("batman")).containsExactly(2L);
+    }
+
+    private static Item item(final Long id, final String title, final String series, final String publisher,
+            final String... tags) {
+        return Item.builder()
+                .id(id)
+                .title(title)
+                .series(series)
+                .issueNumber("1")
+                .publisher(publisher)
+                .status(ItemStatus.OWNED)
+                .tags(new LinkedHashSet<>(List.of(tags)))
+                .build();
+    }
+
+    private static ItemResponse response(final Long id, final String title) {
+        return ItemResponse.builder()
+                .id(id)
+                .title(title)
+                .issueNumber("1")
+                .publisher("DC Comics")
+                .status(ItemStatus.OWNED)
+                .tags(Set.of())
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.quadrinhos.hq.bancohq.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+import org.junit.jupiter.api.Test;
+
+class PersistentMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapIncludingHashCollisions() {
+        exercise(new Random(7), 2000, value -> value / 4);
+    }
+
+    @Test
+    void shouldBehaveLikeHashMapWhenEveryKeySharesTheHash() {
+        exercise(new Random(11), 60, value -> 42);
+    }
+
+    @Test
+    void shouldBehaveLikeHashMapWhenHashesDifferOnlyInTheHighBits() {
+        exercise(new Random(13), 400, value -> (value % 50) << 20);
+    }
+
+    @Test
+    void editsShouldNotAffectPublishedSnapshots() {
+        PersistentMap.Editor<Key, String> editor = PersistentMap.<Key, String>empty().edit();
+        for (int i = 0; i < 100; i++) {
+            editor.put(key(i), "v" + i);
+        }
+        PersistentMap<Key, String> first = editor.publish();
+
+        editor.put(key(1), "alterado");
+        editor.remove(key(2));
+        editor.put(key(500), "novo");
+        PersistentMap<Key, String> second = editor.publish();
+
+        assertThat(first).hasSize(100).containsEntry(key(1), "v1").containsEntry(key(2), "v2")
+                .doesNotContainKey(key(500));
+        assertThat(second).hasSize(100).containsEntry(key(1), "alterado").doesNotContainKey(key(2))
+                .containsEntry(key(500), "novo");
+    }
+
+    /**
+     * Lotes aleatórios de put/remove comparados a um {@link HashMap}. Cada snapshot publicado é conferido de
+     * novo depois de todos os lotes seguintes, em geral feitos pelo mesmo editor que o publicou; no fim, o mapa
+     * é esvaziado chave a chave.
+     */
+    private static void exercise(final Random random, final int keySpace, final IntUnaryOperator hash) {
+        Map<Key, Integer> expected = new HashMap<>();
+        List<PersistentMap<Key, Integer>> snapshots = new ArrayList<>();
+        List<Map<Key, Integer>> snapshotContents = new ArrayList<>();
+        PersistentMap<Key, Integer> published = PersistentMap.empty();
+        PersistentMap.Editor<Key, Integer> editor = published.edit();
+        for (int batch = 0; batch < 50; batch++) {
+            if (random.nextInt(4) == 0) {
+                editor = published.edit();
+            }
+            for (int operation = 0; operation < 200; operation++) {
+                int value = random.nextInt(keySpace);
+                Key key = new Key(value, hash.applyAsInt(value));
+                if (random.nextInt(3) == 0) {
+                    assertThat(editor.remove(key)).isEqualTo(expected.remove(key));
+                } else {
+                    int content = random.nextInt();
+                    assertThat(editor.put(key, content)).isEqualTo(expected.put(key, content));
+                }
+            }
+            assertSameContents(editor, expected);
+            published = editor.publish();
+            assertSameContents(published, expected);
+            snapshots.add(published);
+            snapshotContents.add(new HashMap<>(expected));
+
+            for (int i = 0; i < snapshots.size(); i++) {
+                assertSameContents(snapshots.get(i), snapshotContents.get(i));
+            }
+        }
+
+        List<Key> keys = new ArrayList<>(expected.keySet());
+        Collections.shuffle(keys, random);
+        for (Key key : keys) {
+            assertThat(editor.remove(key)).isEqualTo(expected.remove(key));
+            assertThat(editor).hasSize(expected.size()).doesNotContainKey(key);
+        }
+        assertThat(editor.remove(new Key(0, hash.applyAsInt(0)))).isNull();
+        assertSameContents(editor, Map.of());
+        assertThat(editor.publish()).isSameAs(PersistentMap.empty()).isEmpty();
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertSameContents(snapshots.get(i), snapshotContents.get(i));
+        }
+    }
+
+    /**
+     * Confere tamanho, consultas, o iterador de {@code entrySet} e {@code forEach}; nenhum dos dois pode
+     * repetir uma entrada.
+     */
+    private static void assertSameContents(final Map<Key, Integer> actual, final Map<Key, Integer> expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(actual.get(key)).isEqualTo(value));
+
+        List<Map.Entry<Key, Integer>> iterated = new ArrayList<>(actual.entrySet());
+        assertThat(iterated).hasSize(expected.size()).containsExactlyInAnyOrderElementsOf(expected.entrySet());
+
+        Map<Key, Integer> visited = new HashMap<>();
+        actual.forEach((key, value) -> assertThat(visited.put(key, value)).isNull());
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    private static Key key(final int value) {
+        return new Key(value, value / 4);
+    }
+
+    /**
+     * Chave com hash escolhido pelo teste, para forçar colisões.
+     */
+    private record Key(int value, int hash) {
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Key key && key.value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quadrinhos.hq.bancohq.config.JwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Requisições autenticadas por segundo com um token antigo (só o usuário, carregado do banco a cada
+ * requisição) e com o token atual (permissões nas claims). Executar com
+ * {@code mvn test -Dbenchmarks=true -Dtest=JwtAuthenticationBenchmarkTest}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class JwtAuthenticationBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int REQUESTS = 20_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void compareDatabaseLookupWithClaims() throws Exception {
+        MvcResult registered = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", "benchmark-jwt",
+                        "password", "segredo123", "fullName", "Benchmark"))))
+                .andReturn();
+        String response = mockMvc.perform(asyncDispatch(registered))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String claimsToken = objectMapper.readTree(response).get("token").asText();
+        String legacyToken = Jwts.builder()
+                .setSubject("benchmark-jwt")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
+                .signWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)),
+                        SignatureAlgorithm.HS256)
+                .compact();
+
+        run("consulta ao banco", legacyToken);
+        run("claims", claimsToken);
+    }
+
+    private void run(final String label, final String token) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            request(token);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            request(token);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-18s %8.0f req/s  comandos SQL=%d%n", label, REQUESTS / seconds,
+                statistics.getPrepareStatementCount());
+    }
+
+    private void request(final String token) throws Exception {
+        mockMvc.perform(patch("/api/items/1/status")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+}
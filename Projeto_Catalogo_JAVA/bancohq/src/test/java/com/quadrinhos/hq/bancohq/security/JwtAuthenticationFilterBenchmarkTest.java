@@ -0,0 +1,86 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import com.quadrinhos.hq.bancohq.config.JwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Custo do {@link JwtAuthenticationFilter} por requisição: verificação dupla com um parser novo a cada
+ * chamada (como antes), uma única verificação com o parser compartilhado e o token já verificado em
+ * cache. Executar com {@code mvn test -Dbenchmarks=true -Dtest=JwtAuthenticationFilterBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-thirty-two-bytes-0123456789";
+    private static final int WARMUP = 50_000;
+    private static final int REQUESTS = 200_000;
+
+    @Test
+    void measureFilterCostPerRequest() throws Exception {
+        JwtTokenProvider uncached = provider(0);
+        JwtTokenProvider cached = provider(10_000);
+        String token = cached.generateToken(new UsernamePasswordAuthenticationToken("leitor", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+        Runnable doubleParse = () -> {
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        };
+        run("parser novo, 2 passadas", token, doubleParse);
+        run("verifyAndExtract", token, filter(uncached));
+        run("verifyAndExtract + cache", token, filter(cached));
+    }
+
+    private static void run(final String label, final String token, final Runnable perRequest) {
+        for (int i = 0; i < WARMUP; i++) {
+            perRequest.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            perRequest.run();
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-26s %8.0f ns/requisição%n", label, (double) nanos / REQUESTS);
+    }
+
+    private static Runnable filter(final JwtTokenProvider provider) {
+        JwtProperties properties = new JwtProperties();
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(provider,
+                new TokenVersionCache(properties, null, new SimpleMeterRegistry()), null);
+        String header = "Bearer " + provider.generateToken(new UsernamePasswordAuthenticationToken("leitor", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        return () -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+            request.addHeader(HttpHeaders.AUTHORIZATION, header);
+            try {
+                filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private static JwtTokenProvider provider(final long cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.getVerifiedCache().setMaximumSize(cacheSize);
+        return new JwtTokenProvider(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,93 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * A requisição inválida ({@code 400}) só chega à validação se o filtro autenticou o token; sem
+ * autenticação a resposta é {@code 403}. Assim dá para contar os comandos SQL da autenticação isolada.
+ */
+@SpringBootTest(properties = "catalogo.security.jwt.revocation.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldAuthenticateFromClaimsAndRejectRevokedTokens() throws Exception {
+        String token = register("leitor-jwt", "segredo123");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(invalidStatusUpdate(token)).andExpect(status().isBadRequest());
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        mockMvc.perform(post("/api/auth/revoke").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(invalidStatusUpdate(token)).andExpect(status().isForbidden());
+
+        String renewed = login("leitor-jwt", "segredo123");
+        mockMvc.perform(invalidStatusUpdate(renewed)).andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder invalidStatusUpdate(final String token) {
+        return patch("/api/items/1/status")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}");
+    }
+
+    private String register(final String username, final String password) throws Exception {
+        return token(post("/api/auth/register"), Map.of("username", username, "password", password,
+                "fullName", "Leitor"), 201);
+    }
+
+    private String login(final String username, final String password) throws Exception {
+        return token(post("/api/auth/login"), Map.of("username", username, "password", password), 200);
+    }
+
+    private String token(final MockHttpServletRequestBuilder builder, final Map<String, String> body,
+            final int expectedStatus) throws Exception {
+        MvcResult started = mockMvc.perform(builder
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().is(expectedStatus))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
@@ -0,0 +1,59 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.config.JwtProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-thirty-two-bytes-0123456789";
+
+    @Test
+    void shouldExtractClaimsOnceAndServeRepeatedTokensFromCache() {
+        JwtTokenProvider provider = provider(60_000);
+        String token = provider.generateToken(authentication());
+
+        JwtPrincipal principal = provider.verifyAndExtract(token).orElseThrow();
+        assertThat(principal.username()).isEqualTo("leitor");
+        assertThat(principal.tokenVersion()).isZero();
+        assertThat(principal.authorities()).containsExactly(new SimpleGrantedAuthority("ROLE_USER"));
+
+        assertThat(provider.verifyAndExtract(token)).contains(principal);
+    }
+
+    @Test
+    void shouldRejectTamperedAndExpiredTokens() throws InterruptedException {
+        JwtTokenProvider provider = provider(60_000);
+        String token = provider.generateToken(authentication());
+        provider.verifyAndExtract(token);
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        assertThat(provider.verifyAndExtract(forged)).isEmpty();
+        assertThat(provider.verifyAndExtract("")).isEmpty();
+        assertThat(provider.verifyAndExtract(null)).isEmpty();
+
+        JwtTokenProvider shortLived = provider(1_500);
+        String expiring = shortLived.generateToken(authentication());
+        assertThat(shortLived.verifyAndExtract(expiring)).isPresent();
+        Thread.sleep(2_000);
+        assertThat(shortLived.verifyAndExtract(expiring)).isEmpty();
+    }
+
+    private static JwtTokenProvider provider(final long expiration) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiration(expiration);
+        return new JwtTokenProvider(properties, new SimpleMeterRegistry());
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication() {
+        return new UsernamePasswordAuthenticationToken("leitor", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,59 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.quadrinhos.hq.bancohq.config.LoginProperties;
+import com.quadrinhos.hq.bancohq.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTest {
+
+    @Test
+    void burstOfPendingAttemptsShouldNotExceedTheLimit() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(new LoginProperties(), new SimpleMeterRegistry());
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService burst = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 40; i++) {
+            burst.execute(() -> {
+                try {
+                    start.await();
+                    throttle.reserve("alvo", "10.0.0.1");
+                    reserved.incrementAndGet();
+                } catch (TooManyLoginAttemptsException | InterruptedException ignored) {
+                    // Tentativa recusada pelo limite
+                }
+            });
+        }
+        start.countDown();
+        burst.shutdown();
+        assertThat(burst.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(reserved).hasValue(5);
+    }
+
+    @Test
+    void successShouldReturnTheReservationAndClearTheUsernameFailures() {
+        LoginProperties properties = new LoginProperties();
+        properties.getThrottle().setMaxAttemptsPerAddress(2);
+        LoginThrottle throttle = new LoginThrottle(properties, new SimpleMeterRegistry());
+
+        throttle.reserve("ana", "10.0.0.1");
+        throttle.succeeded("ana", "10.0.0.1");
+        throttle.reserve("bia", "10.0.0.1");
+        throttle.release("bia", "10.0.0.1");
+        throttle.reserve("ana", "10.0.0.1");
+        throttle.reserve("bia", "10.0.0.1");
+
+        assertThatThrownBy(() -> throttle.reserve("caio", "10.0.0.1"))
+                .isInstanceOf(TooManyLoginAttemptsException.class);
+        throttle.reserve("caio", "10.0.0.2");
+    }
+}
@@ -0,0 +1,50 @@
+package com.quadrinhos.hq.bancohq.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.quadrinhos.hq.bancohq.config.LoginProperties;
+import com.quadrinhos.hq.bancohq.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void shouldRejectImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        LoginProperties properties = new LoginProperties();
+        properties.setHashingThreads(1);
+        properties.setHashingQueueCapacity(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(properties, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> running = executor.submit(() -> await(release));
+            CompletableFuture<String> queued = executor.submit(() -> "na fila");
+
+            assertThatThrownBy(() -> executor.submit(() -> "recusado"))
+                    .isInstanceOf(LoginCapacityExceededException.class);
+            assertThat(registry.get("catalogo.security.password.rejected").counter().count()).isEqualTo(1);
+            assertThat(registry.get("catalogo.security.password.queue").gauge().value()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("liberado");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("na fila");
+            assertThat(registry.get("catalogo.security.password.hash").timer().count()).isEqualTo(2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return "liberado";
+    }
+}
@@ -0,0 +1,79 @@
+package com.quadrinhos.hq.bancohq.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Mede a vazão da importação CSV em lote, do envio do arquivo ao fim do job.
+ * Executar com {@code mvn test -Dbenchmarks=true -Dtest=ItemImportBenchmarkTest}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ItemImportBenchmarkTest {
+
+    private static final int ROWS = 200_000;
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void importLargeFeed() throws Exception {
+        itemRepository.deleteAll();
+        byte[] csv = generateCsv().getBytes(StandardCharsets.UTF_8);
+
+        ItemImportJobResponse job = run("import", csv, Mode.INSERT);
+        assertThat(job.getStatus()).isEqualTo(ItemImportJobResponse.Status.COMPLETED);
+        assertThat(job.getInserted()).isEqualTo(ROWS);
+    }
+
+    @Test
+    void reimportUnchangedFeedWithUpsert() throws Exception {
+        itemRepository.deleteAll();
+        byte[] csv = generateCsv().getBytes(StandardCharsets.UTF_8);
+        run("upsert (novo)", csv, Mode.UPSERT);
+
+        ItemImportJobResponse job = run("upsert (inalterado)", csv, Mode.UPSERT);
+        assertThat(job.getStatus()).isEqualTo(ItemImportJobResponse.Status.COMPLETED);
+        assertThat(job.getSkipped()).isEqualTo(ROWS);
+        assertThat(itemRepository.count()).isEqualTo(ROWS);
+    }
+
+    private ItemImportJobResponse run(final String label, final byte[] csv, final Mode mode) throws Exception {
+        ItemImportJobResponse job = itemImportService.submit("feed.csv", new ByteArrayInputStream(csv), mode);
+        while (!job.getStatus().isFinished()) {
+            Thread.sleep(100);
+            job = itemImportService.findJob(job.getId());
+        }
+
+        long elapsedMillis = Duration.between(job.getStartedAt(), job.getFinishedAt()).toMillis();
+        System.out.printf("%s rows=%d inserted=%d updated=%d skipped=%d elapsed=%d ms rows/s=%.0f%n", label,
+                job.getParsed(), job.getInserted(), job.getUpdated(), job.getSkipped(), elapsedMillis,
+                job.getRowsPerSecond());
+        return job;
+    }
+
+    private static String generateCsv() {
+        StringBuilder csv = new StringBuilder("title,series,issueNumber,publisher,status,tags\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Edição ").append(i).append(",Série ").append(i % 500).append(',').append(i)
+                    .append(",Editora ").append(i % 40).append(",OWNED,\"tag").append(i % 50).append(",tag")
+                    .append(i % 7).append("\"\n");
+        }
+        return csv.toString();
+    }
+}
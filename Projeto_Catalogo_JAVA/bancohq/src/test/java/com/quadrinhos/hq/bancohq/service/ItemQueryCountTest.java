@@ -0,0 +1,89 @@
+package com.quadrinhos.hq.bancohq.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemPageRequest;
+import com.quadrinhos.hq.bancohq.dto.ItemRequest;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Garante que as leituras de listas não fazem uma consulta de tags por item: o número de comandos SQL
+ * precisa ser o mesmo para 5 e para 60 itens.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemQueryCountTest {
+
+    private static final ItemFilter OWNED = ItemFilter.builder().status(ItemStatus.OWNED).build();
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listReadsShouldRunConstantNumberOfStatements() {
+        Map<String, Runnable> reads = new LinkedHashMap<>();
+        reads.put("findAll", () -> itemService.findAll());
+        reads.put("search", () -> itemService.search(OWNED));
+        reads.put("searchPage", () -> itemService.searchPage(ItemFilter.builder().build(),
+                ItemPageRequest.builder().size(ItemPageRequest.MAX_SIZE).build()));
+        reads.put("streamSearch", () -> itemService.streamSearch(OWNED, item -> { }));
+        reads.put("streamSearch (catálogo)", () -> itemService.streamSearch(null, item -> { }));
+
+        createItems(0, 5);
+        Map<String, Long> few = countStatements(reads);
+        createItems(5, 60);
+        Map<String, Long> many = countStatements(reads);
+
+        assertThat(many).isEqualTo(few);
+        assertThat(many.values()).allSatisfy(count -> assertThat(count).isLessThanOrEqualTo(3));
+    }
+
+    private Map<String, Long> countStatements(final Map<String, Runnable> reads) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        reads.forEach((name, read) -> {
+            statistics.clear();
+            read.run();
+            counts.put(name, statistics.getPrepareStatementCount());
+        });
+        return counts;
+    }
+
+    private void createItems(final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setTitle("Item " + i);
+            request.setIssueNumber(String.valueOf(i));
+            request.setPublisher("Editora");
+            request.setStatus(ItemStatus.OWNED);
+            request.setTags(Set.of("tag" + i, "comum"));
+            itemService.create(request);
+        }
+    }
+}
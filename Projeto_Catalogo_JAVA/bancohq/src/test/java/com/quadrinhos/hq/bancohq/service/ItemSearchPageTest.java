@@ -0,0 +1,77 @@
+package com.quadrinhos.hq.bancohq.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.dto.ItemFilter;
+import com.quadrinhos.hq.bancohq.dto.ItemPageRequest;
+import com.quadrinhos.hq.bancohq.dto.ItemPageResponse;
+import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.model.Item;
+import com.quadrinhos.hq.bancohq.model.ItemStatus;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import com.quadrinhos.hq.bancohq.search.ItemSearchIndex;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Com mais ids do que cabem em um bloco, páginas, total e facetas continuam vindo do índice: "colecao"
+ * encontra "Coleção" em todos eles.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSearchPageTest {
+
+    private static final int MATCHES = 1_150;
+    private static final ItemFilter FILTER = ItemFilter.builder().term("colecao").build();
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < MATCHES + 100; i++) {
+            items.add(Item.builder()
+                    .title(i < MATCHES ? "Coleção " + i % 37 : "Avulso " + i)
+                    .issueNumber(String.valueOf(i))
+                    .publisher("Panini")
+                    .status(ItemStatus.OWNED)
+                    .build());
+        }
+        itemRepository.saveAll(items);
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void pagesAndTotalsShouldMatchTheIndexedSearchBeyondOneChunk() {
+        List<Long> expected = itemService.search(FILTER).stream().map(ItemResponse::getId).toList();
+        assertThat(expected).hasSize(MATCHES);
+        assertThat(itemService.facets(FILTER, 10).getTotal()).isEqualTo(MATCHES);
+
+        for (String sort : List.of("id,asc", "id,desc", "title,asc", "title,desc")) {
+            List<Long> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                ItemPageResponse page = itemService.searchPage(FILTER, ItemPageRequest.builder()
+                        .size(ItemPageRequest.MAX_SIZE).sort(sort).cursor(cursor).includeTotal(true).build());
+                assertThat(page.getTotalElements()).isEqualTo(MATCHES);
+                page.getData().forEach(item -> paged.add(item.getId()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(paged).as(sort).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
@@ -5,16 +5,24 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.quadrinhos.hq.bancohq.cache.CatalogVersion;
+import com.quadrinhos.hq.bancohq.cache.ItemCache;
+import com.quadrinhos.hq.bancohq.cache.SearchResultCache;
+import com.quadrinhos.hq.bancohq.config.CacheProperties;
 import com.quadrinhos.hq.bancohq.dto.ItemRequest;
 import com.quadrinhos.hq.bancohq.dto.ItemResponse;
+import com.quadrinhos.hq.bancohq.event.ItemChangedEvent;
 import com.quadrinhos.hq.bancohq.exception.ItemNotFoundException;
 import com.quadrinhos.hq.bancohq.mapper.ItemMapper;
 import com.quadrinhos.hq.bancohq.model.Item;
 import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import com.quadrinhos.hq.bancohq.search.ItemSearchIndex;
 import com.quadrinhos.hq.bancohq.service.impl.ItemServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -23,7 +31,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
@@ -34,6 +46,19 @@ class ItemServiceImplTest {
     @Mock
     private ItemMapper itemMapper;
 
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ItemCache itemCache = new ItemCache(new CacheProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private SearchResultCache searchCache = new SearchResultCache(new CacheProperties(), new CatalogVersion(),
+            new SimpleMeterRegistry());
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -72,20 +97,21 @@ class ItemServiceImplTest {
     @Test
     void shouldCreateItem() {
         when(itemMapper.toEntity(request)).thenReturn(entity);
-        when(itemRepository.save(any(Item.class))).thenReturn(entity);
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(entity);
         when(itemMapper.toResponse(entity)).thenReturn(buildResponse(entity));
 
         ItemResponse response = itemService.create(request);
 
         assertThat(response.getId()).isEqualTo(1L);
-        verify(itemRepository).save(any(Item.class));
+        verify(itemRepository).saveAndFlush(any(Item.class));
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
     void shouldUpdateExistingItem() {
         when(itemRepository.findById(1L)).thenReturn(Optional.of(entity));
         doNothing().when(itemMapper).updateEntity(entity, request);
-        when(itemRepository.save(entity)).thenReturn(entity);
+        when(itemRepository.saveAndFlush(entity)).thenReturn(entity);
         when(itemMapper.toResponse(entity)).thenReturn(buildResponse(entity));
 
         ItemResponse response = itemService.update(1L, request);
@@ -104,25 +130,29 @@ class ItemServiceImplTest {
 
     @Test
     void shouldFindItemById() {
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(entity));
+        when(itemRepository.findWithTagsById(1L)).thenReturn(Optional.of(entity));
         when(itemMapper.toResponse(entity)).thenReturn(buildResponse(entity));
 
         ItemResponse response = itemService.findById(1L);
+        ItemResponse cached = itemService.findById(1L);
 
         assertThat(response.getId()).isEqualTo(1L);
+        assertThat(cached).isSameAs(response);
+        verify(itemRepository, times(1)).findWithTagsById(1L);
     }
 
     @Test
     void shouldThrowWhenItemNotFoundById() {
-        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemRepository.findWithTagsById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> itemService.findById(1L))
                 .isInstanceOf(ItemNotFoundException.class);
+        assertThat(itemCache.size()).isZero();
     }
 
     @Test
     void shouldFindAllItems() {
-        when(itemRepository.findAll()).thenReturn(Arrays.asList(entity));
+        when(itemRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(Arrays.asList(entity));
         when(itemMapper.toResponse(entity)).thenReturn(buildResponse(entity));
 
         List<ItemResponse> responses = itemService.findAll();
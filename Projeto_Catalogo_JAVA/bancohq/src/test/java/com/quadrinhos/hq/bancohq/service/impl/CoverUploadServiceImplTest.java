@@ -0,0 +1,143 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.quadrinhos.hq.bancohq.config.StorageProperties;
+import com.quadrinhos.hq.bancohq.dto.CoverUploadRequest;
+import com.quadrinhos.hq.bancohq.dto.CoverUploadResponse;
+import com.quadrinhos.hq.bancohq.exception.UploadCapacityExceededException;
+import com.quadrinhos.hq.bancohq.exception.UploadSessionNotFoundException;
+import com.quadrinhos.hq.bancohq.service.FileStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class CoverUploadServiceImplTest {
+
+    @TempDir
+    private Path directory;
+
+    private StorageProperties properties;
+    private FileStorageService fileStorageService;
+    private CoverUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StorageProperties();
+        properties.setLocation(directory.toString());
+        properties.getUploads().setChunkSize(DataSize.ofBytes(4));
+        fileStorageService = mock(FileStorageService.class);
+        service = new CoverUploadServiceImpl(fileStorageService, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void chunksShouldBeWrittenAtTheirPositionInAnyOrder() throws Exception {
+        CoverUploadResponse session = service.create(request(10), "ana");
+
+        service.writeChunk(session.getId(), "ana", 2, new ByteArrayInputStream(new byte[] {9, 10}), -1);
+        CoverUploadResponse partial = service.writeChunk(session.getId(), "ana", 0,
+                new ByteArrayInputStream(new byte[] {1, 2, 3, 4}), 4);
+
+        assertThat(partial.getReceivedBytes()).isEqualTo(6);
+        assertThat(partial.getReceivedChunks()).extracting(CoverUploadResponse.ChunkRange::getFirst)
+                .containsExactly(0, 2);
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), "ana", 1,
+                new ByteArrayInputStream(new byte[] {5, 6, 7, 8, 0}), -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        service.writeChunk(session.getId(), "ana", 1, new ByteArrayInputStream(new byte[] {5, 6, 7, 8}), -1);
+
+        assertThat(service.find(session.getId(), "ana").isComplete()).isTrue();
+        assertThat(Files.readAllBytes(partFile(session.getId())))
+                .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+
+    @Test
+    void idleSessionsAndOrphanedPartsShouldBeRemovedByTheCleanup() throws Exception {
+        CoverUploadResponse active = service.create(request(10), "ana");
+        Path orphan = Files.write(partFile("anterior-ao-reinicio"), new byte[] {1});
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        service.purgeExpired();
+
+        assertThat(service.find(active.getId(), "ana")).isNotNull();
+        assertThat(orphan).doesNotExist();
+
+        properties.getUploads().setTtl(Duration.ZERO);
+        service.purgeExpired();
+
+        assertThatThrownBy(() -> service.find(active.getId(), "ana"))
+                .isInstanceOf(UploadSessionNotFoundException.class);
+        assertThat(partFile(active.getId())).doesNotExist();
+    }
+
+    @Test
+    void completedSessionShouldKeepTheCoverReferenceUntilTheItemIsSaved() throws Exception {
+        when(fileStorageService.store(any(Path.class), eq("capa.png"), anyString())).thenReturn("/files/capa.png");
+        CoverUploadResponse kept = service.create(request(2), "ana");
+        service.writeChunk(kept.getId(), "ana", 0, new ByteArrayInputStream(new byte[] {1, 2}), 2);
+
+        assertThat(service.complete(kept.getId(), "ana")).isEqualTo("/files/capa.png");
+        assertThat(service.complete(kept.getId(), "ana")).isEqualTo("/files/capa.png");
+        verify(fileStorageService, times(1)).store(any(Path.class), anyString(), anyString());
+        service.confirm(kept.getId(), "ana");
+        assertThatThrownBy(() -> service.find(kept.getId(), "ana"))
+                .isInstanceOf(UploadSessionNotFoundException.class);
+        verify(fileStorageService, never()).delete(anyString());
+
+        CoverUploadResponse abandoned = service.create(request(2), "ana");
+        service.writeChunk(abandoned.getId(), "ana", 0, new ByteArrayInputStream(new byte[] {1, 2}), 2);
+        service.complete(abandoned.getId(), "ana");
+        service.cancel(abandoned.getId(), "ana");
+        verify(fileStorageService).delete("/files/capa.png");
+    }
+
+    @Test
+    void creationShouldRespectPerOwnerAndPendingSizeLimits() {
+        properties.getUploads().setMaxSessionsPerOwner(2);
+        properties.getUploads().setMaxPendingSize(DataSize.ofBytes(100));
+        service.create(request(10), "ana");
+        service.create(request(10), "ana");
+
+        assertThatThrownBy(() -> service.create(request(10), "ana"))
+                .isInstanceOf(UploadCapacityExceededException.class);
+        service.create(request(70), "bia");
+        assertThatThrownBy(() -> service.create(request(20), "bia"))
+                .isInstanceOf(UploadCapacityExceededException.class);
+        service.create(request(10), "bia");
+    }
+
+    private Path partFile(final String uploadId) {
+        return directory.resolve(".tmp/sessions/" + uploadId + ".part");
+    }
+
+    private static CoverUploadRequest request(final long size) {
+        CoverUploadRequest request = new CoverUploadRequest();
+        request.setFileName("capa.png");
+        request.setSize(size);
+        request.setSha256("0".repeat(64));
+        return request;
+    }
+}
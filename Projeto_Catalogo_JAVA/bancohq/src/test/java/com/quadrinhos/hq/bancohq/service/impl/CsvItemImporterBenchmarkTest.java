@@ -0,0 +1,82 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.quadrinhos.hq.bancohq.config.ImportProperties;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import com.quadrinhos.hq.bancohq.dto.ItemRequest;
+import com.quadrinhos.hq.bancohq.service.ItemService;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compara a leitura/validação sequencial com o pipeline paralelo, sem banco: o {@link ItemService}
+ * apenas conta as linhas recebidas, então o número mede só leitura, conversão e Bean Validation.
+ * Executar com {@code mvn test -Dbenchmarks=true -Dtest=CsvItemImporterBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class CsvItemImporterBenchmarkTest {
+
+    private static final int ROWS = 300_000;
+    private static final int ROUNDS = 3;
+
+    @Test
+    void compareSequentialAndParallel() throws Exception {
+        byte[] csv = generateCsv().getBytes(StandardCharsets.UTF_8);
+        int processors = Runtime.getRuntime().availableProcessors();
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            for (int round = 0; round < ROUNDS; round++) {
+                measure("sequential", factory, csv, 0, true);
+                measure("parallel", factory, csv, Math.max(2, processors), true);
+                measure("unordered", factory, csv, Math.max(2, processors), false);
+            }
+        }
+    }
+
+    private static void measure(final String label, final ValidatorFactory factory, final byte[] csv,
+            final int workers, final boolean preserveOrder) throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.setWorkers(workers);
+        properties.setPreserveOrder(preserveOrder);
+        ItemService itemService = mock(ItemService.class);
+        when(itemService.importBatch(anyList())).thenAnswer(invocation -> LongStream
+                .range(0, invocation.<List<ItemRequest>>getArgument(0).size())
+                .boxed()
+                .toList());
+
+        CsvItemImporter importer = new CsvItemImporter(itemService, factory.getValidator(), properties);
+        ItemImportJob job = new ItemImportJob("bench", "feed.csv", null, null, csv.length, Mode.INSERT);
+        long start = System.nanoTime();
+        try {
+            importer.importCsv(job, new ByteArrayInputStream(csv), new StringWriter(), properties.getChunkSize());
+        } finally {
+            importer.shutdown();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.printf("%-10s workers=%d cpus=%d rows=%d elapsed=%d ms rows/s=%.0f%n", label, workers,
+                Runtime.getRuntime().availableProcessors(), job.getInserted().get(), elapsedNanos / 1_000_000,
+                job.getInserted().get() * 1_000_000_000d / elapsedNanos);
+        assertThat(job.getInserted().get()).isEqualTo(ROWS);
+    }
+
+    private static String generateCsv() {
+        StringBuilder csv = new StringBuilder("title,series,issueNumber,publisher,language,condition,status,tags\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Title ").append(i).append(",Series ").append(i % 500).append(',').append(i)
+                    .append(",Publisher ").append(i % 40).append(",pt-BR,Novo,OWNED,\"tag")
+                    .append(i % 50).append(",tag").append(i % 7).append("\"\n");
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.quadrinhos.hq.bancohq.config.ImportProperties;
+import com.quadrinhos.hq.bancohq.dto.ItemImportJobResponse.Mode;
+import com.quadrinhos.hq.bancohq.dto.ItemRequest;
+import com.quadrinhos.hq.bancohq.service.ItemService;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+class CsvItemImporterTest {
+
+    private static final ValidatorFactory VALIDATOR_FACTORY = Validation.buildDefaultValidatorFactory();
+    private static final int ROWS = 1000;
+
+    @AfterAll
+    static void closeValidator() {
+        VALIDATOR_FACTORY.close();
+    }
+
+    @Test
+    void parallelPipelineShouldKeepFileOrderAndReportSameRejections() throws Exception {
+        Result sequential = run(0, true);
+        Result parallel = run(3, true);
+
+        assertThat(sequential.titles()).hasSize(ROWS - ROWS / 10 - ROWS / 13 + ROWS / 130);
+        assertThat(parallel.titles()).containsExactlyElementsOf(sequential.titles());
+        assertThat(parallel.report()).isEqualTo(sequential.report());
+        assertThat(parallel.job().getParsed().get()).isEqualTo(ROWS);
+        assertThat(parallel.job().getInserted().get()).isEqualTo(sequential.titles().size());
+        assertThat(parallel.job().getRejected().get()).isEqualTo(ROWS - sequential.titles().size());
+    }
+
+    @Test
+    void unorderedPipelineShouldImportEveryValidRow() throws Exception {
+        Result sequential = run(0, true);
+        Result unordered = run(3, false);
+
+        assertThat(unordered.titles()).containsExactlyInAnyOrderElementsOf(sequential.titles());
+        assertThat(unordered.job().getRejected().get()).isEqualTo(sequential.job().getRejected().get());
+    }
+
+    private static Result run(final int workers, final boolean preserveOrder) throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.setWorkers(workers);
+        properties.setParseBatchSize(7);
+        properties.setMaxInFlightBatches(4);
+        properties.setPreserveOrder(preserveOrder);
+
+        List<String> titles = new ArrayList<>();
+        ItemService itemService = mock(ItemService.class);
+        when(itemService.importBatch(anyList())).thenAnswer(invocation -> {
+            List<ItemRequest> chunk = invocation.getArgument(0);
+            List<Long> ids = new ArrayList<>();
+            chunk.forEach(request -> {
+                titles.add(request.getTitle());
+                ids.add((long) titles.size());
+            });
+            return ids;
+        });
+
+        CsvItemImporter importer = new CsvItemImporter(itemService, VALIDATOR_FACTORY.getValidator(), properties);
+        ItemImportJob job = new ItemImportJob("job", "feed.csv", null, null, 0, Mode.INSERT);
+        StringWriter report = new StringWriter();
+        try {
+            importer.importCsv(job, new ByteArrayInputStream(csv().getBytes(StandardCharsets.UTF_8)), report, 50);
+        } finally {
+            importer.shutdown();
+        }
+        return new Result(job, titles, report.toString());
+    }
+
+    private static String csv() {
+        StringBuilder csv = new StringBuilder("title,issueNumber,publisher,status,tags\n");
+        for (int i = 1; i <= ROWS; i++) {
+            csv.append("Title ").append(i).append(',')
+                    .append(i).append(',')
+                    .append(i % 10 == 0 ? "" : "Publisher").append(',')
+                    .append(i % 13 == 0 ? "PERDIDO" : "OWNED").append(',')
+                    .append("\"a, b\"\n");
+        }
+        return csv.toString();
+    }
+
+    private record Result(ItemImportJob job, List<String> titles, String report) {
+    }
+}
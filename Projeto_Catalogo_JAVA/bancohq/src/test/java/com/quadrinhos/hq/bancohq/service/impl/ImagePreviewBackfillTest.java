@@ -0,0 +1,62 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.quadrinhos.hq.bancohq.config.StorageProperties;
+import com.quadrinhos.hq.bancohq.dto.ImagePreviewBackfillResponse;
+import com.quadrinhos.hq.bancohq.dto.ImagePreviewBackfillResponse.Status;
+import com.quadrinhos.hq.bancohq.exception.ImagePreviewBackfillNotFoundException;
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
+import com.quadrinhos.hq.bancohq.repository.ItemRepository;
+import com.quadrinhos.hq.bancohq.service.FileStorageService;
+import com.quadrinhos.hq.bancohq.service.ItemService;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ImagePreviewBackfillTest {
+
+    @Test
+    void requestShouldReturnWhileTheJobKeepsRunning() throws Exception {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemService itemService = mock(ItemService.class);
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemRepository.findImageUrlsWithoutPreview(eq(""), any())).thenReturn(List.of("/files/capa.png"));
+        when(itemRepository.findImageUrlsWithoutPreview(eq("/files/capa.png"), any())).thenReturn(List.of());
+        when(fileStorageService.describe(anyString())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return ImagePreview.builder().width(200).height(300).build();
+        });
+        when(itemService.applyImagePreviews(anyMap())).thenReturn(3);
+        ImagePreviewBackfill backfill = new ImagePreviewBackfill(itemRepository, itemService, fileStorageService,
+                new StorageProperties());
+
+        ImagePreviewBackfillResponse started = backfill.start();
+        assertThat(started.getStatus()).isEqualTo(Status.RUNNING);
+        assertThat(backfill.start().getId()).isEqualTo(started.getId());
+        assertThat(backfill.find(started.getId()).getStatus()).isEqualTo(Status.RUNNING);
+
+        release.countDown();
+        ImagePreviewBackfillResponse finished = backfill.find(started.getId());
+        for (long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                finished.getStatus() == Status.RUNNING && System.nanoTime() < deadline;
+                finished = backfill.find(started.getId())) {
+            Thread.sleep(10);
+        }
+        assertThat(finished.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(finished.getImages()).isEqualTo(1);
+        assertThat(finished.getItemsUpdated()).isEqualTo(3);
+        assertThat(finished.getFinishedAt()).isNotNull();
+        assertThatThrownBy(() -> backfill.find("outro"))
+                .isInstanceOf(ImagePreviewBackfillNotFoundException.class);
+    }
+}
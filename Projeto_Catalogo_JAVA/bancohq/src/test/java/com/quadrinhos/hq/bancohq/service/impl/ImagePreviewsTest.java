@@ -0,0 +1,73 @@
+package com.quadrinhos.hq.bancohq.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.quadrinhos.hq.bancohq.model.ImagePreview;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImagePreviewsTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void solidCoverShouldBeEncodedFromItsColor() throws Exception {
+        Path file = write(solid(Color.RED, 300, 200), "png");
+
+        ImagePreview preview = ImagePreviews.read(file);
+
+        assertThat(preview.getWidth()).isEqualTo(300);
+        assertThat(preview.getHeight()).isEqualTo(200);
+        assertThat(preview.getDominantColor()).isEqualTo("#ff0000");
+        // 4x3 componentes ("L") e DC 0xFF0000 ("TI:j"); os AC não são zero porque a soma discreta dos cossenos
+        // ímpares não se anula, como na implementação de referência
+        assertThat(preview.getBlurHash()).hasSize(28).startsWith("L");
+        assertThat(preview.getBlurHash().substring(2, 6)).isEqualTo("TI:j");
+    }
+
+    @Test
+    void largeCoverShouldBeSampledWithoutLosingItsDimensions() throws Exception {
+        BufferedImage image = solid(Color.WHITE, 1600, 2400);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(0, 0, 800, 2400);
+        graphics.dispose();
+        Path file = write(image, "jpg");
+
+        ImagePreview preview = ImagePreviews.read(file);
+
+        assertThat(preview.getWidth()).isEqualTo(1600);
+        assertThat(preview.getHeight()).isEqualTo(2400);
+        assertThat(preview.getBlurHash()).hasSize(28).startsWith("L");
+        assertThat(Integer.parseInt(preview.getDominantColor().substring(1, 3), 16)).isBetween(0xA0, 0xC8);
+    }
+
+    @Test
+    void unreadableFileShouldHaveNoPreview() throws Exception {
+        Path file = Files.write(directory.resolve("capa.png"), new byte[] {1, 2, 3});
+
+        assertThat(ImagePreviews.read(file)).isNull();
+    }
+
+    private Path write(final BufferedImage image, final String format) throws Exception {
+        Path file = directory.resolve("capa." + format);
+        ImageIO.write(image, format, file.toFile());
+        return file;
+    }
+
+    private static BufferedImage solid(final Color color, final int width, final int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -4,7 +4,7 @@
  */
 
 import apiClient from "./api.js";
-import { parseError } from "./utils/errors.js";
+import { parseError, ServerError } from "./utils/errors.js";
 import {
   apiRequest,
   buildQuery,
@@ -309,27 +309,97 @@ export async function updateItemStatusWithState(id, status) {
 // IMPORTAR CSV
 // ============================================================================
 
+/**
+ * Job de importação criado por POST /items/import
+ * @typedef {Object} ItemImportJob
+ * @property {string} id - ID do job
+ * @property {string} status - QUEUED, RUNNING, COMPLETED, FAILED ou CANCELLED
+ * @property {number} inserted - Linhas inseridas
+ * @property {number} updated - Linhas atualizadas
+ * @property {number} skipped - Linhas ignoradas
+ * @property {number} rejected - Linhas rejeitadas
+ * @property {string} [error] - Motivo da falha
+ * @property {string} rejectedReportUrl - CSV com as linhas rejeitadas
+ */
+
+/**
+ * Resultado final de uma importação
+ * @typedef {Object} ItemImportResult
+ * @property {number} imported - Linhas inseridas ou atualizadas
+ * @property {string[]} errors - Linhas do relatório de rejeitadas (sem o cabeçalho)
+ * @property {ItemImportJob} job - Estado final do job
+ */
+
+const IMPORT_POLL_INTERVAL_MS = 1000;
+const IMPORT_FINISHED = ["COMPLETED", "FAILED", "CANCELLED"];
+
+const wait = (ms) => new Promise((resolve) => setTimeout(resolve, ms));
+
+/**
+ * Envia o CSV, acompanha o job em /items/import/{id} até terminar e busca
+ * as linhas rejeitadas. O servidor responde 202 antes de ler o arquivo.
+ */
+async function runImport(file, pollIntervalMs) {
+  const formData = new FormData();
+  formData.append("file", file);
+  const submitted = await apiClient.post("/items/import", formData, {
+    headers: {
+      "Content-Type": "multipart/form-data",
+    },
+  });
+
+  let job = submitted.data;
+  let response = submitted;
+  while (!IMPORT_FINISHED.includes(job.status)) {
+    await wait(pollIntervalMs);
+    response = await apiClient.get(`/items/import/${job.id}`);
+    job = response.data;
+  }
+
+  if (job.status !== "COMPLETED") {
+    throw new ServerError(job.error || "Importação cancelada.");
+  }
+
+  let errors = [];
+  if (job.rejected > 0) {
+    const report = await apiClient.get(`/items/import/${job.id}/rejected`, {
+      responseType: "text",
+    });
+    errors = String(report.data)
+      .split(/\r?\n/)
+      .slice(1)
+      .filter((line) => line.trim() !== "");
+  }
+
+  return {
+    status: response.status,
+    data: { imported: job.inserted + job.updated, errors, job },
+  };
+}
+
 /**
  * Importa múltiplos items de um arquivo CSV
  * Versão que lança exceção em caso de erro
  *
+ * A importação roda em segundo plano no servidor; a promise só resolve
+ * quando o job termina.
+ *
  * @param {File} file - Arquivo CSV com items
- * @returns {Promise<{imported: number, errors: string[]}>} Resultado da importação
+ * @param {Object} [options]
+ * @param {number} [options.pollIntervalMs=1000] - Intervalo entre consultas ao job
+ * @returns {Promise<ItemImportResult>} Resultado da importação
  * @throws {import('./utils/errors.js').ApiError} Erro categorizado
  *
  * @example
  * const result = await importItemsCsv(file);
  * console.log(`${result.imported} items importados`);
  */
-export async function importItemsCsv(file) {
+export async function importItemsCsv(
+  file,
+  { pollIntervalMs = IMPORT_POLL_INTERVAL_MS } = {}
+) {
   try {
-    const formData = new FormData();
-    formData.append("file", file);
-    const response = await apiClient.post("/items/import", formData, {
-      headers: {
-        "Content-Type": "multipart/form-data",
-      },
-    });
+    const response = await runImport(file, pollIntervalMs);
     return response.data;
   } catch (error) {
     throw parseError(error);
@@ -341,19 +411,16 @@ export async function importItemsCsv(file) {
  * Versão que retorna objeto com status e não lança exceção
  *
  * @param {File} file - Arquivo CSV
- * @returns {Promise<ItemOperationResult>} Objeto com data, error, status, etc
+ * @param {Object} [options]
+ * @param {number} [options.pollIntervalMs=1000] - Intervalo entre consultas ao job
+ * @returns {Promise<ItemOperationResult>} Objeto com data (ItemImportResult), error, status, etc
  *
  * @example
  * const result = await importItemsCsvWithState(file);
  */
-export async function importItemsCsvWithState(file) {
-  const formData = new FormData();
-  formData.append("file", file);
-  return apiRequest(() =>
-    apiClient.post("/items/import", formData, {
-      headers: {
-        "Content-Type": "multipart/form-data",
-      },
-    })
-  );
+export async function importItemsCsvWithState(
+  file,
+  { pollIntervalMs = IMPORT_POLL_INTERVAL_MS } = {}
+) {
+  return apiRequest(() => runImport(file, pollIntervalMs));
 }
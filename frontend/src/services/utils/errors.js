@@ -206,6 +206,11 @@ export class ServerError extends ApiError {
  * @returns {ApiError} Erro categorizado
  */
 export function parseError(error) {
+  // Já categorizado (ex.: job de importação que terminou com falha)
+  if (error instanceof ApiError) {
+    return error;
+  }
+
   // Erro de rede (sem resposta do servidor)
   if (!error.response) {
     if (error.code === "ECONNABORTED") {